@@ -0,0 +1,49 @@
+package me.tippie.customadvancements.advancement.types;
+
+import me.tippie.customadvancements.advancement.CAdvancement;
+
+import java.util.UUID;
+
+/**
+ * Represents the synthetic {@link AdvancementType} used by the benchmarks.
+ * It does not listen to any Bukkit event, the benchmarks call {@link AdvancementType#progress(Object, UUID)} directly.
+ * It lives in this package because the constructor of {@link AdvancementType} is package private.
+ */
+public class Synthetic extends AdvancementType<Synthetic.Event> {
+
+	/**
+	 * Creates a new Synthetic {@link AdvancementType}
+	 *
+	 * @see AdvancementType
+	 */
+	public Synthetic() {
+		super("Synthetic", "events");
+	}
+
+	/**
+	 * Registers 1 progress when the value of the event equals the value of the advancement.
+	 *
+	 * @param event the event what progress is made on
+	 * @param value the value of the {@link CAdvancement}
+	 * @param path  the path of the {@link CAdvancement}
+	 */
+	@Override
+	protected void onProgress(final Event event, final String value, final String path) {
+		if (value == null || value.equals(event.value)) {
+			progression(1, path, event.player);
+		}
+	}
+
+	/**
+	 * The event of the synthetic type, the benchmark equivalent of a {@link org.bukkit.event.block.BlockBreakEvent}
+	 */
+	public static final class Event {
+		private final UUID player;
+		private final String value;
+
+		public Event(final UUID player, final String value) {
+			this.player = player;
+			this.value = value;
+		}
+	}
+}
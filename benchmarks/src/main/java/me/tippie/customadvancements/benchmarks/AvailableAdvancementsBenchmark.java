@@ -0,0 +1,67 @@
+package me.tippie.customadvancements.benchmarks;
+
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.player.CAPlayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CAPlayer#getAvailableAdvancements()} for a player that completed half of every tree, so the next
+ * advancement of every tree is available and the rest is locked behind it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AvailableAdvancementsBenchmark {
+
+	@Param({"1", "10", "50"})
+	public int trees;
+
+	@Param({"10", "100"})
+	public int advancements;
+
+	private BenchmarkEnvironment environment;
+	private CAPlayer caPlayer;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, ReflectiveOperationException {
+		environment = new BenchmarkEnvironment(trees, advancements, 1);
+		caPlayer = environment.join(advancements / 2, false);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		environment.close();
+	}
+
+	/**
+	 * The list as computed by the player, requirement results come from the requirement cache
+	 */
+	@Benchmark
+	public List<CAdvancement> available() {
+		return caPlayer.getAvailableAdvancements();
+	}
+
+	/**
+	 * The list as used by the GUIs, rebuilt only after progress changed
+	 */
+	@Benchmark
+	public List<CAdvancement> availableSnapshot() {
+		return caPlayer.getAggregates().getAvailableAdvancements();
+	}
+
+	/**
+	 * The list as used by the GUIs right after progress changed
+	 */
+	@Benchmark
+	public List<CAdvancement> availableSnapshotInvalidated() {
+		caPlayer.getAggregates().invalidate();
+		return caPlayer.getAggregates().getAvailableAdvancements();
+	}
+}
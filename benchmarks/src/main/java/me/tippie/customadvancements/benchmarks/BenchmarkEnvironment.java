@@ -0,0 +1,302 @@
+package me.tippie.customadvancements.benchmarks;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.AdvancementManager;
+import me.tippie.customadvancements.advancement.CompletionPipeline;
+import me.tippie.customadvancements.advancement.requirement.types.Advancement;
+import me.tippie.customadvancements.advancement.types.AdvancementType;
+import me.tippie.customadvancements.advancement.types.Synthetic;
+import me.tippie.customadvancements.player.CAPlayer;
+import me.tippie.customadvancements.player.CAPlayerManager;
+import me.tippie.customadvancements.player.ProgressBus;
+import me.tippie.customadvancements.player.ProgressService;
+import me.tippie.customadvancements.player.datafile.AdvancementProgress;
+import me.tippie.customadvancements.util.Lang;
+import me.tippie.customadvancements.util.Profiler;
+import me.tippie.customadvancements.util.Stubs;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginLogger;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A plugin instance on top of a mocked Bukkit server, shared by all benchmarks.
+ * The server is a {@link Stubs stub} that only knows the online players of this environment and collects scheduled
+ * tasks, which run on {@link BenchmarkEnvironment#tick()}. The plugin is allocated without running its constructor, the fields that
+ * {@link JavaPlugin} normally initializes from the plugin loader are set directly, and the managers that
+ * {@link CustomAdvancements#onEnable()} would create are put into their static fields.
+ * <p>
+ * In generated advancement trees every advancement requires the previous advancement of its tree. Advancements of the
+ * {@link Synthetic} type need {@link Integer#MAX_VALUE} progress, so benchmarks never trigger completions or rewards.
+ * JMH forks a new JVM per benchmark, an environment is created once per trial.
+ */
+public final class BenchmarkEnvironment {
+	private static final Logger LOGGER = Logger.getLogger("BenchmarkServer");
+	private static final Map<UUID, Player> ONLINE = new LinkedHashMap<>();
+	private static final List<Task> TASKS = new ArrayList<>();
+	private static boolean serverSet = false;
+	private static long currentTick = 0;
+	private static int nextTaskId = 1;
+
+	private final Path dataFolder;
+	private final List<AdvancementType<?>> types = new ArrayList<>();
+
+	/**
+	 * Creates a new environment with generated advancement trees of the {@link Synthetic} type in a temporary data folder
+	 *
+	 * @param trees        the amount of advancement trees
+	 * @param advancements the amount of advancements per tree
+	 * @param values       the amount of distinct values of the advancements, an event matches 1 in this many advancements
+	 */
+	public BenchmarkEnvironment(final int trees, final int advancements, final int values) throws IOException, ReflectiveOperationException {
+		this(trees, advancements, Collections.<Supplier<AdvancementType<?>>>singletonList(Synthetic::new), index -> String.valueOf(index % values), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new environment with generated advancement trees of the given types in a temporary data folder,
+	 * the advancements of a tree use the types in turn and all have the value 'any'
+	 *
+	 * @param trees        the amount of advancement trees
+	 * @param advancements the amount of advancements per tree
+	 * @param types        creates the advancement types, they are created after the plugin instance is set
+	 * @param amount       the progress needed to complete an advancement
+	 */
+	public BenchmarkEnvironment(final int trees, final int advancements, final List<Supplier<AdvancementType<?>>> types, final int amount) throws IOException, ReflectiveOperationException {
+		this(trees, advancements, types, index -> "any", amount);
+	}
+
+	private BenchmarkEnvironment(final int trees, final int advancements, final List<Supplier<AdvancementType<?>>> types, final IntFunction<String> values, final int amount) throws IOException, ReflectiveOperationException {
+		LOGGER.setLevel(Level.WARNING);
+		setServer();
+		ONLINE.clear();
+		TASKS.clear();
+		dataFolder = Files.createTempDirectory("customadvancements-benchmark");
+
+		final CustomAdvancements plugin = allocate(CustomAdvancements.class);
+		setField(JavaPlugin.class, plugin, "server", Bukkit.getServer());
+		setField(JavaPlugin.class, plugin, "description", new PluginDescriptionFile("CustomAdvancements", "benchmark", CustomAdvancements.class.getName()));
+		setField(JavaPlugin.class, plugin, "dataFolder", dataFolder.toFile());
+		setField(JavaPlugin.class, plugin, "newConfig", new YamlConfiguration());
+		final PluginLogger logger = new PluginLogger(plugin);
+		logger.setLevel(Level.WARNING);
+		setField(JavaPlugin.class, plugin, "logger", logger);
+		Lang.setFile(new YamlConfiguration());
+
+		setField(CustomAdvancements.class, null, "instance", plugin);
+		final AdvancementManager advancementManager = new AdvancementManager();
+		setField(CustomAdvancements.class, null, "advancementManager", advancementManager);
+		setField(CustomAdvancements.class, null, "caPlayerManager", new CAPlayerManager());
+		setField(CustomAdvancements.class, null, "progressBus", new ProgressBus());
+		setField(CustomAdvancements.class, null, "progressService", new ProgressService());
+		setField(CustomAdvancements.class, null, "profiler", new Profiler());
+		setField(CustomAdvancements.class, null, "completionPipeline", new CompletionPipeline());
+
+		for (final Supplier<AdvancementType<?>> type : types) {
+			this.types.add(type.get());
+			advancementManager.registerAdvancement(this.types.get(this.types.size() - 1));
+		}
+		advancementManager.registerAdvancementRequirement(new Advancement());
+		writeTrees(trees, advancements, values, amount);
+		advancementManager.loadAdvancements();
+	}
+
+	/**
+	 * Gets the advancement type of the environment with generated {@link Synthetic} advancements
+	 *
+	 * @return the {@link Synthetic} type
+	 */
+	public Synthetic getType() {
+		return (Synthetic) types.get(0);
+	}
+
+	/**
+	 * Runs the tasks of the mocked scheduler that are due in the next tick, the plugin itself does not schedule the
+	 * progress bus and completion pipeline in this environment
+	 */
+	public void tick() {
+		currentTick++;
+		for (final Task task : new ArrayList<>(TASKS)) {
+			if (task.next > currentTick || !TASKS.contains(task)) continue;
+			if (task.period > 0) {
+				task.next += task.period;
+			} else {
+				TASKS.remove(task);
+			}
+			task.runnable.run();
+		}
+	}
+
+	/**
+	 * Gets the temporary data folder of this environment
+	 *
+	 * @return the path of the data folder
+	 */
+	public Path getDataFolder() {
+		return dataFolder;
+	}
+
+	/**
+	 * Lets a new virtual player join and loads their {@link CAPlayer}
+	 *
+	 * @param completed the amount of advancements per tree, starting from the first, that are completed
+	 * @param activate  true if all other advancements should be active, ignoring their requirements
+	 * @return the loaded player
+	 */
+	public CAPlayer join(final int completed, final boolean activate) {
+		final UUID uuid = UUID.randomUUID();
+		final Player player = Stubs.player(uuid, uuid.toString().substring(0, 16));
+		ONLINE.put(player.getUniqueId(), player);
+		CustomAdvancements.getCaPlayerManager().loadPlayer(player);
+		final CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId());
+		for (final Map.Entry<String, AdvancementProgress> entry : caPlayer.getAdvancementProgress().entrySet()) {
+			final int index = Integer.parseInt(entry.getKey().substring(entry.getKey().lastIndexOf('_') + 1));
+			if (index < completed) {
+				entry.getValue().setCompleted(true);
+			} else if (activate) {
+				entry.getValue().setActive(true);
+			}
+		}
+		caPlayer.getAggregates().invalidate();
+		return caPlayer;
+	}
+
+	/**
+	 * Deletes the data folder of this environment
+	 */
+	public void close() throws IOException {
+		ONLINE.clear();
+		TASKS.clear();
+		try (final java.util.stream.Stream<Path> paths = Files.walk(dataFolder)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	private void writeTrees(final int trees, final int advancements, final IntFunction<String> values, final int amount) throws IOException {
+		final Path folder = Files.createDirectories(dataFolder.resolve("advancement-trees"));
+		for (int tree = 0; tree < trees; tree++) {
+			final StringBuilder yaml = new StringBuilder();
+			yaml.append("options:\n  auto_active: false\n  display_name: tree_").append(tree).append("\n  item: OAK_SAPLING\n  gui_location: auto\n");
+			yaml.append("advancements:\n");
+			for (int advancement = 0; advancement < advancements; advancement++) {
+				yaml.append("  advancement_").append(advancement).append(":\n")
+						.append("    type: ").append(types.get(advancement % types.size()).getLabel()).append('\n')
+						.append("    value: '").append(values.apply(advancement)).append("'\n")
+						.append("    amount: ").append(amount).append('\n');
+				if (advancement > 0) {
+					yaml.append("    requirements:\n      previous:\n        type: advancement\n        value: tree_")
+							.append(tree).append(".advancement_").append(advancement - 1).append('\n');
+				}
+				yaml.append("    display:\n      name: advancement_").append(advancement)
+						.append("\n      item: CHEST\n      gui_location: auto\n      unit: events\n");
+			}
+			Files.write(folder.resolve("tree_" + tree + ".yml"), yaml.toString().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private static synchronized void setServer() {
+		if (serverSet) return;
+		final PluginManager pluginManager = Stubs.create(PluginManager.class, (method, args) -> null);
+		final BukkitScheduler scheduler = Stubs.create(BukkitScheduler.class, BenchmarkEnvironment::schedule);
+		Bukkit.setServer(Stubs.create(Server.class, (method, args) -> {
+			switch (method) {
+				case "getLogger":
+					return LOGGER;
+				case "getName":
+					return "BenchmarkServer";
+				case "getVersion":
+				case "getBukkitVersion":
+					return "1.16.5-R0.1-SNAPSHOT";
+				case "getPluginManager":
+					return pluginManager;
+				case "getScheduler":
+					return scheduler;
+				case "getOnlinePlayers":
+					return Collections.unmodifiableCollection(ONLINE.values());
+				case "getPlayer":
+					return args[0] instanceof UUID ? ONLINE.get(args[0]) : null;
+				default:
+					return null;
+			}
+		}));
+		serverSet = true;
+	}
+
+	/**
+	 * Answers the calls to the scheduler, every task runs on {@link BenchmarkEnvironment#tick()} whether it is async or not
+	 */
+	private static Object schedule(final String method, final Object[] args) {
+		if (method.equals("cancelTasks")) {
+			TASKS.clear();
+			return null;
+		}
+		if (method.equals("cancelTask")) {
+			TASKS.removeIf(task -> task.id == (Integer) args[0]);
+			return null;
+		}
+		if (args == null || args.length < 2 || !(args[1] instanceof Runnable)) return null;
+		final long delay = args.length > 2 ? Math.max(1, (Long) args[2]) : 1;
+		final long period = args.length > 3 ? Math.max(1, (Long) args[3]) : 0;
+		final Task task = new Task(nextTaskId++, (Runnable) args[1], currentTick + delay, period);
+		TASKS.add(task);
+		if (method.startsWith("schedule")) return task.id;
+		return Stubs.create(BukkitTask.class, (taskMethod, taskArgs) -> {
+			switch (taskMethod) {
+				case "getTaskId":
+					return task.id;
+				case "isCancelled":
+					return !TASKS.contains(task);
+				case "cancel":
+					TASKS.remove(task);
+					return null;
+				default:
+					return null;
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T allocate(final Class<T> type) throws ReflectiveOperationException {
+		final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+		final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+		theUnsafe.setAccessible(true);
+		return (T) unsafeClass.getMethod("allocateInstance", Class.class).invoke(theUnsafe.get(null), type);
+	}
+
+	private static void setField(final Class<?> owner, final Object target, final String name, final Object value) throws ReflectiveOperationException {
+		final Field field = owner.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+
+	private static final class Task {
+		private final int id;
+		private final Runnable runnable;
+		private final long period;
+		private long next;
+
+		private Task(final int id, final Runnable runnable, final long next, final long period) {
+			this.id = id;
+			this.runnable = runnable;
+			this.next = next;
+			this.period = period;
+		}
+	}
+}
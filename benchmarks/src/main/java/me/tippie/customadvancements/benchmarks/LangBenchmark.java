@@ -0,0 +1,41 @@
+package me.tippie.customadvancements.benchmarks;
+
+import me.tippie.customadvancements.util.Lang;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Lang#getConfigValue(String[], boolean)} with the default messages
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LangBenchmark {
+	private final String[] twoArgs = {"advancement_1", "tree_1"};
+	private final String[] sevenArgs = {"BlockBreak", "1000", "250", "25", "3", "12", "140"};
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Lang.setFile(new YamlConfiguration());
+	}
+
+	@Benchmark
+	public String noArgs() {
+		return Lang.GUI_MAIN_TREES_LORE.getString();
+	}
+
+	@Benchmark
+	public String twoArgs() {
+		return Lang.REQUIREMENT_ADVANCEMENT_MESSAGE.getConfigValue(twoArgs, true);
+	}
+
+	@Benchmark
+	public String sevenArgsWithPrefix() {
+		return Lang.COMMAND_STATS_TYPE.getConfigValue(sevenArgs, false);
+	}
+}
@@ -0,0 +1,57 @@
+package me.tippie.customadvancements.benchmarks;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.types.AdvancementType;
+import me.tippie.customadvancements.advancement.types.BlockBreak;
+import me.tippie.customadvancements.advancement.types.BlocksTravelled;
+import me.tippie.customadvancements.advancement.types.Chat;
+import me.tippie.customadvancements.advancement.types.CraftItem;
+import me.tippie.customadvancements.util.LoadGenerator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs the {@link LoadGenerator} of '/ca loadtest' headless on the mocked server of a {@link BenchmarkEnvironment}.
+ * Ticks run back to back instead of every 50ms, so the tick interval in the report is the full cost of one tick.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar me.tippie.customadvancements.benchmarks.LoadTest [players] [ticks] [trees] [advancements] [blockbreak/s] [move/s] [chat/s] [craft/s]}
+ */
+public final class LoadTest {
+
+	private LoadTest() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final int players = argument(args, 0, 500);
+		final int ticks = argument(args, 1, 1200);
+		final int trees = argument(args, 2, 10);
+		final int advancements = argument(args, 3, 20);
+		final double[] rates = {0.5, 10, 0.05, 0.1};
+		for (int i = 4; i < args.length && i < 8; i++) rates[i - 4] = Double.parseDouble(args[i]);
+
+		final List<Supplier<AdvancementType<?>>> types = Arrays.asList(BlockBreak::new, BlocksTravelled::new, Chat::new, CraftItem::new);
+		final BenchmarkEnvironment environment = new BenchmarkEnvironment(trees, advancements, types, 1000);
+		try {
+			final LoadGenerator generator = new LoadGenerator(players, rates[0], rates[1], rates[2], rates[3]);
+			generator.start();
+			for (int tick = 0; tick < ticks; tick++) {
+				generator.tick();
+				environment.tick();
+				CustomAdvancements.getProgressBus().drain();
+				CustomAdvancements.getCompletionPipeline().tick();
+			}
+			for (final Map.Entry<String, String> entry : generator.stop().entrySet()) {
+				System.out.println(entry.getKey() + ": " + entry.getValue());
+			}
+		} finally {
+			environment.close();
+		}
+	}
+
+	private static int argument(final String[] args, final int index, final int def) {
+		return args.length > index ? Integer.parseInt(args[index]) : def;
+	}
+}
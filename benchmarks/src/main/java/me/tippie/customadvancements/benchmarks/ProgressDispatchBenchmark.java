@@ -0,0 +1,75 @@
+package me.tippie.customadvancements.benchmarks;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.types.Synthetic;
+import me.tippie.customadvancements.player.CAPlayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link me.tippie.customadvancements.advancement.types.AdvancementType#progress(Object, UUID)} for a player
+ * that has every advancement active, at different amounts of trees and advancements per tree.
+ * 1 in {@link ProgressDispatchBenchmark#VALUES} advancements matches an event and queues progression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProgressDispatchBenchmark {
+	private static final int VALUES = 10;
+
+	/**
+	 * The bus is drained by {@link ProgressDispatchBenchmark#dispatch()} once this many updates are queued, like a tick would
+	 */
+	private static final int DRAIN_AT = 1024;
+
+	@Param({"1", "10", "50"})
+	public int trees;
+
+	@Param({"10", "100"})
+	public int advancements;
+
+	private BenchmarkEnvironment environment;
+	private Synthetic type;
+	private UUID player;
+	private Synthetic.Event[] events;
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, ReflectiveOperationException {
+		environment = new BenchmarkEnvironment(trees, advancements, VALUES);
+		type = environment.getType();
+		final CAPlayer caPlayer = environment.join(0, true);
+		player = caPlayer.getUuid();
+		events = new Synthetic.Event[VALUES];
+		for (int i = 0; i < VALUES; i++) events[i] = new Synthetic.Event(player, String.valueOf(i));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		environment.close();
+	}
+
+	/**
+	 * One event dispatched to the type, draining the bus is amortized over {@link ProgressDispatchBenchmark#DRAIN_AT} updates
+	 */
+	@Benchmark
+	public void dispatch() {
+		type.progress(events[next++ % VALUES], player);
+		if (CustomAdvancements.getProgressBus().getBacklog() >= DRAIN_AT) CustomAdvancements.getProgressBus().drain();
+	}
+
+	/**
+	 * One event dispatched to the type and the resulting progression applied right away, the worst case of one event per tick
+	 */
+	@Benchmark
+	public void dispatchAndDrain() {
+		type.progress(events[next++ % VALUES], player);
+		CustomAdvancements.getProgressBus().drain();
+	}
+}
@@ -0,0 +1,56 @@
+package me.tippie.customadvancements.benchmarks;
+
+import me.tippie.customadvancements.player.CAPlayer;
+import me.tippie.customadvancements.player.datafile.AdvancementProgress;
+import me.tippie.customadvancements.player.datafile.AdvancementProgressFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading and saving the progress file of a player, which happens on join, quit and every autosave
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProgressFileBenchmark {
+
+	@Param({"1", "10", "50"})
+	public int trees;
+
+	@Param({"10", "100"})
+	public int advancements;
+
+	private BenchmarkEnvironment environment;
+	private AdvancementProgressFile file;
+	private Map<String, AdvancementProgress> progress;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, ReflectiveOperationException {
+		environment = new BenchmarkEnvironment(trees, advancements, 1);
+		final CAPlayer caPlayer = environment.join(advancements / 2, true);
+		file = caPlayer.getAdvancementProgressFile();
+		progress = caPlayer.getAdvancementProgress();
+		file.saveFile(progress);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		environment.close();
+	}
+
+	@Benchmark
+	public Map<String, AdvancementProgress> load() {
+		return file.loadFile();
+	}
+
+	@Benchmark
+	public void save() {
+		file.saveFile(progress);
+	}
+}
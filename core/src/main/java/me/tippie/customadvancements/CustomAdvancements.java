@@ -2,6 +2,7 @@ package me.tippie.customadvancements;
 
 import lombok.Getter;
 import me.tippie.customadvancements.advancement.AdvancementManager;
+import me.tippie.customadvancements.advancement.CompletionPipeline;
 import me.tippie.customadvancements.advancement.requirement.types.Advancement;
 import me.tippie.customadvancements.advancement.requirement.types.Permission;
 import me.tippie.customadvancements.advancement.reward.types.ConsoleCommand;
@@ -9,15 +10,23 @@ import me.tippie.customadvancements.advancement.reward.types.Message;
 import me.tippie.customadvancements.advancement.types.*;
 import me.tippie.customadvancements.bstats.Metrics;
 import me.tippie.customadvancements.commands.CommandListener;
+import me.tippie.customadvancements.guis.GuiItems;
+import me.tippie.customadvancements.guis.GuiListener;
 import me.tippie.customadvancements.player.CAPlayerListener;
 import me.tippie.customadvancements.player.CAPlayerManager;
+import me.tippie.customadvancements.player.ProgressBus;
+import me.tippie.customadvancements.player.ProgressService;
+import me.tippie.customadvancements.player.RequirementCache;
 import me.tippie.customadvancements.util.ConfigWrapper;
 import me.tippie.customadvancements.util.Lang;
+import me.tippie.customadvancements.util.LoadGenerator;
+import me.tippie.customadvancements.util.Profiler;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 /**
@@ -33,7 +42,7 @@ public final class CustomAdvancements extends JavaPlugin {
 			final String packageName = CustomAdvancements.class.getPackage().getName();
 			final String internalsName = Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3];
 			internals = (InternalsProvider<?,?,?>) Class.forName(packageName + "." + internalsName).newInstance();
-		} catch (final ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException exception) {
+		} catch (final ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException | ArrayIndexOutOfBoundsException exception) {
 			Bukkit.getLogger().log(Level.SEVERE, "CustomAdvancements could not find a valid implementation for this server version.");
 		}
 	}
@@ -72,6 +81,31 @@ public final class CustomAdvancements extends JavaPlugin {
 	 */
 	@Getter private static CAPlayerManager caPlayerManager;
 
+	/**
+	 * {@link me.tippie.customadvancements.player.ProgressBus}
+	 */
+	@Getter private static ProgressBus progressBus;
+
+	/**
+	 * {@link me.tippie.customadvancements.player.ProgressService}
+	 */
+	@Getter private static ProgressService progressService;
+
+	/**
+	 * {@link me.tippie.customadvancements.advancement.CompletionPipeline}
+	 */
+	@Getter private static CompletionPipeline completionPipeline;
+
+	/**
+	 * {@link me.tippie.customadvancements.guis.GuiListener}
+	 */
+	@Getter private static GuiListener guiListener;
+
+	/**
+	 * {@link me.tippie.customadvancements.util.Profiler}
+	 */
+	@Getter private static Profiler profiler;
+
 	/**
 	 * The bStats metrics for this plugin
 	 */
@@ -93,22 +127,36 @@ public final class CustomAdvancements extends JavaPlugin {
 		advancementManager = new AdvancementManager();
 		commandListener = new CommandListener();
 		caPlayerManager = new CAPlayerManager();
+		progressBus = new ProgressBus();
+		progressService = new ProgressService();
 		instance = this;
+		profiler = new Profiler();
+		completionPipeline = new CompletionPipeline();
+		guiListener = new GuiListener();
 
 		final int pluginId = 10941;
 		metrics = new Metrics(this, pluginId);
+		profiler.registerCharts(metrics);
 
 		this.getCommand("customadvancements").setExecutor(commandListener);
 		this.getCommand("customadvancements").setTabCompleter(commandListener);
 		getServer().getPluginManager().registerEvents(new CAPlayerListener(), this);
+		getServer().getPluginManager().registerEvents(guiListener, this);
+		getServer().getScheduler().runTaskTimer(this, progressBus::drain, 1L, 1L);
+		getServer().getScheduler().runTaskTimer(this, completionPipeline::tick, 1L, 1L);
+		final long dumpInterval = getConfig().getLong("stats.dump-interval", 300) * 20L;
+		if (profiler.isEnabled() && dumpInterval > 0)
+			getServer().getScheduler().runTaskTimerAsynchronously(this, profiler::dump, dumpInterval, dumpInterval);
 
 		PROGRESS_PER_PACKET = getConfig().getInt("packet.progress-per-packet", 5);
 		getLogger().log(Level.INFO, "Progress per packet is now "+ PROGRESS_PER_PACKET );
 		ADVANCEMENTS_PER_PACKET = getConfig().getInt("packet.advancements-per-packet", 5);
 		getLogger().log(Level.INFO, "Advancements per packet is now "+ ADVANCEMENTS_PER_PACKET);
+		RequirementCache.loadConfig(getConfig());
 
 		registerAdvancementTypes();
 		advancementManager.loadAdvancements();
+		GuiItems.rebuild();
 		for (final Player player : Bukkit.getServer().getOnlinePlayers()) {
 			caPlayerManager.loadPlayer(player);
 		}
@@ -120,25 +168,7 @@ public final class CustomAdvancements extends JavaPlugin {
 			getLogger().log(Level.INFO, "Hooked into PlaceholderAPI");
 		}
 
-		getLogger().log(Level.INFO, "Loading NMS Advancements...");
-		if (internals == null) {
-			getLogger().log(Level.WARNING, "The minecraft advancements GUI is not supported on this version!");
-		} else {
-			internals.loadAdvancements(advancementManager.getAdvancementTrees())
-					.thenAccept(v -> {
-						getLogger().log(Level.INFO, "Advancements Loaded! Sending it to all online players.");
-						Bukkit.getOnlinePlayers().parallelStream().forEach(p -> {
-							internals.sendAdvancements(p, getConfig().getBoolean("remove-default-trees",true)).exceptionally(e -> {
-								CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Could not send advancements to " + p.getName()+ "!",e);
-								return null;
-							});;
-						});
-					})
-					.exceptionally(throwable -> {
-						getLogger().log(Level.SEVERE, "Could not load the minecraft advancements GUI!", throwable);
-						return null;
-					});
-		}
+		loadMinecraftAdvancements();
 	}
 
 	/**
@@ -199,26 +229,43 @@ public final class CustomAdvancements extends JavaPlugin {
 	 */
 	@Override
 	public void onDisable() {
+		if (LoadGenerator.getRunning() != null) LoadGenerator.getRunning().stop().join();
+		advancementManager.getAdvancementTypes().forEach(AdvancementType::flush);
+		progressBus.drain();
+		completionPipeline.flushPending();
 		for (final Player player : Bukkit.getServer().getOnlinePlayers()) {
 			player.getOpenInventory().close();
 			caPlayerManager.savePlayer(player);
 			caPlayerManager.unloadPlayer(player);
 		}
+		progressService.awaitWrites();
 		advancementManager.unregisterAll();
+		profiler.dump();
 		advancementManager = null;
 		commandListener = null;
 		caPlayerManager = null;
+		progressBus = null;
+		progressService = null;
+		completionPipeline = null;
+		guiListener = null;
+		profiler = null;
 		Bukkit.getScheduler().cancelTasks(this);
 		this.getLogger().log(Level.INFO, "Disabled successfully");
 	}
 
 
-	public void onReload() {
-		for (final Player player : Bukkit.getServer().getOnlinePlayers()) {
-			player.getOpenInventory().close();
-			caPlayerManager.savePlayer(player);
-			caPlayerManager.unloadPlayer(player);
-		}
+	/**
+	 * Reloads the configuration, messages and advancement trees.
+	 * The trees are read off the main thread while the previous generation stays in use, once they are ready the types are
+	 * flushed, the online players are saved, pending offline writes are finished, the new
+	 * {@link me.tippie.customadvancements.advancement.AdvancementRegistrySnapshot} is published, the cached offline players
+	 * are dropped and the online players are loaded again, all within the same tick.
+	 *
+	 * @return a future that is completed on the main thread with true once the reloaded trees are in use, or with false if
+	 * a newer reload was published first and these trees were dropped
+	 */
+	public CompletableFuture<Boolean> onReload() {
+		if (LoadGenerator.getRunning() != null) LoadGenerator.getRunning().stop();
 
 		reloadConfig();
 		messagesFile.reloadConfig();
@@ -228,6 +275,8 @@ public final class CustomAdvancements extends JavaPlugin {
 		getLogger().log(Level.INFO, "Progress per packet is now "+ PROGRESS_PER_PACKET );
 		ADVANCEMENTS_PER_PACKET = getConfig().getInt("packet.advancements-per-packet", 5);
 		getLogger().log(Level.INFO, "Advancements per packet is now "+ ADVANCEMENTS_PER_PACKET);
+		RequirementCache.loadConfig(getConfig());
+		completionPipeline.loadConfig(getConfig());
 
 		if (!papiSupport && Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
 			papiSupport = true;
@@ -235,12 +284,37 @@ public final class CustomAdvancements extends JavaPlugin {
 			getLogger().log(Level.INFO, "Hooked into PlaceholderAPI");
 		}
 
-		advancementManager.loadAdvancements();
-
-		for (final Player player : Bukkit.getServer().getOnlinePlayers()) {
-			caPlayerManager.loadPlayer(player);
-		}
+		// Offline progress still being written is waited for without blocking, it must be in the files before they are reloaded
+		return advancementManager.reloadAdvancements()
+				.thenCompose(snapshot -> progressService.whenWritten().thenApply(v -> snapshot))
+				.thenApply(snapshot -> {
+			if (snapshot.getGeneration() <= advancementManager.getGeneration()) return false;
+			advancementManager.getAdvancementTypes().forEach(AdvancementType::flush);
+			progressBus.drain();
+			completionPipeline.flushPending();
+			for (final Player player : Bukkit.getServer().getOnlinePlayers()) {
+				player.getOpenInventory().close();
+				caPlayerManager.savePlayer(player);
+				caPlayerManager.unloadPlayer(player);
+			}
+
+			advancementManager.publish(snapshot);
+			caPlayerManager.clearCachedPlayers();
+			GuiItems.rebuild();
+
+			for (final Player player : Bukkit.getServer().getOnlinePlayers()) {
+				caPlayerManager.loadPlayer(player);
+			}
+
+			loadMinecraftAdvancements();
+			return true;
+		});
+	}
 
+	/**
+	 * Loads the trees of the current snapshot into the minecraft advancements GUI and sends them to all online players
+	 */
+	private void loadMinecraftAdvancements() {
 		getLogger().log(Level.INFO, "Loading NMS Advancements...");
 		if (internals == null) {
 			getLogger().log(Level.WARNING, "The minecraft advancements GUI is not supported on this version!");
@@ -7,10 +7,32 @@ import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class PAPICustomAdvancementsExpansion extends PlaceholderExpansion {
 
+	/**
+	 * Strings of the numbers 0 to 1023, most counts and progress values fall in this range
+	 */
+	private static final String[] NUMBERS = new String[1024];
+
+	/**
+	 * Maximum amount of parsed identifiers that are cached
+	 */
+	private static final int MAX_PARSED = 4096;
+
+	static {
+		for (int i = 0; i < NUMBERS.length; i++) NUMBERS[i] = String.valueOf(i);
+	}
+
 	private final CustomAdvancements plugin = CustomAdvancements.getInstance();
 
+	/**
+	 * Map with key a placeholder identifier and value the parsed form of it
+	 */
+	private final Map<String, Placeholder> parsed = new ConcurrentHashMap<>();
+
 	public PAPICustomAdvancementsExpansion() {
 
 	}
@@ -49,97 +71,109 @@ public class PAPICustomAdvancementsExpansion extends PlaceholderExpansion {
 			return "";
 		}
 
-		if (identifier.equalsIgnoreCase("available_advancements")) {
-			return String.valueOf(caPlayer.getAvailableAdvancements().size());
-		}
-
-		if (identifier.startsWith("available_advancements_")) {
-			val a = identifier.split("_");
-			val tree = a[a.length - 1];
-			try {
-				return String.valueOf(caPlayer.getAvailableAdvancements(tree).size());
-			} catch (final InvalidAdvancementException ex) {
-				return ChatColor.DARK_RED + "Invalid tree provided in placeholder!";
+		final Placeholder placeholder = parse(identifier);
+		switch (placeholder.kind) {
+			case AVAILABLE:
+				return toString(caPlayer.getAggregates().getAvailable());
+			case COMPLETED:
+				return toString(caPlayer.getCompletionCounters().getCompleted());
+			case ACTIVE:
+				return toString(caPlayer.getAggregates().getActive());
+			case AVAILABLE_TREE:
+			case COMPLETED_TREE:
+			case ACTIVE_TREE: {
+				final int tree;
+				try {
+					tree = CustomAdvancements.getAdvancementManager().getAdvancementTree(placeholder.argument).getIndex();
+				} catch (final InvalidAdvancementException ex) {
+					return ChatColor.DARK_RED + "Invalid tree provided in placeholder!";
+				}
+				if (placeholder.kind == Kind.AVAILABLE_TREE) return toString(caPlayer.getAggregates().getAvailable(tree));
+				if (placeholder.kind == Kind.COMPLETED_TREE) return toString(caPlayer.getCompletionCounters().getCompleted(tree));
+				return toString(caPlayer.getAggregates().getActive(tree));
 			}
+			case PROGRESS_PERCENTAGE:
+				try {
+					val progress = caPlayer.getProgress(placeholder.argument);
+					val advancement = CustomAdvancements.getAdvancementManager().getAdvancement(placeholder.argument);
+					return String.valueOf(Math.round(((double) progress / (double) advancement.getMaxProgress()) * 100));
+				} catch (final InvalidAdvancementException ex) {
+					return ChatColor.DARK_RED + "Invalid path provided in placeholder!";
+				}
+			case PROGRESS:
+				try {
+					return toString(caPlayer.getProgress(placeholder.argument));
+				} catch (InvalidAdvancementException e){
+					return ChatColor.DARK_RED + "Invalid path provided in placeholder!";
+				}
+			case MAX_PROGRESS:
+				try {
+					val advancement = CustomAdvancements.getAdvancementManager().getAdvancement(placeholder.argument);
+					return toString(advancement.getMaxProgress());
+				} catch (final InvalidAdvancementException ex) {
+					return ChatColor.DARK_RED + "Invalid path provided in placeholder!";
+				}
+			case MEET_REQUIREMENTS:
+				try {
+					val advancement = CustomAdvancements.getAdvancementManager().getAdvancement(placeholder.argument);
+					return String.valueOf(caPlayer.meetRequirements(advancement));
+				} catch (final InvalidAdvancementException ex) {
+					return ChatColor.DARK_RED + "Invalid path provided in placeholder!";
+				}
+			default:
+				// We return null if an invalid placeholder (f.e. %someplugin_placeholder3%)
+				// was provided
+				return null;
 		}
+	}
 
-		if (identifier.equalsIgnoreCase("completed_advancements")) {
-			return String.valueOf(caPlayer.getCompletedAdvancements().size());
-		}
-
-		if (identifier.startsWith("completed_advancements_")) {
-			val a = identifier.split("_");
-			val tree = a[a.length - 1];
-			try {
-				return String.valueOf(caPlayer.getCompletedAdvancements(tree).size());
-			} catch (final InvalidAdvancementException ex) {
-				return ChatColor.DARK_RED + "Invalid tree provided in placeholder!";
-			}
-		}
-
-		if (identifier.equalsIgnoreCase("active_advancements")) {
-			return String.valueOf(caPlayer.getActiveAdvancements().size());
-		}
-
-		if (identifier.startsWith("active_advancements_")) {
-			val a = identifier.split("_");
-			val tree = a[a.length - 1];
-			try {
-				return String.valueOf(caPlayer.getActiveAdvancements(tree).size());
-			} catch (final InvalidAdvancementException ex) {
-				return ChatColor.DARK_RED + "Invalid tree provided in placeholder!";
-			}
-		}
-
-		if (identifier.startsWith("progress_percentage_")) {
-			val a = identifier.split("_");
-			val path = a[a.length - 1];
-			try {
-				val progress = caPlayer.getProgress(path);
-				val advancement = CustomAdvancements.getAdvancementManager().getAdvancement(path);
-				return String.valueOf(Math.round(((double) progress / (double) advancement.getMaxProgress()) * 100));
-			} catch (final InvalidAdvancementException ex) {
-				return ChatColor.DARK_RED + "Invalid path provided in placeholder!";
-			}
+	/**
+	 * Parses an identifier, or returns the cached result of an earlier parse
+	 */
+	private Placeholder parse(final String identifier) {
+		Placeholder placeholder = parsed.get(identifier);
+		if (placeholder == null) {
+			placeholder = Placeholder.parse(identifier);
+			if (parsed.size() < MAX_PARSED) parsed.put(identifier, placeholder);
 		}
+		return placeholder;
+	}
 
+	/**
+	 * Converts a number to a string, small non-negative numbers are served from a cache
+	 */
+	private static String toString(final int number) {
+		return number >= 0 && number < NUMBERS.length ? NUMBERS[number] : String.valueOf(number);
+	}
 
-		if (identifier.startsWith("progress_")) {
-			val a = identifier.split("_");
-			val path = a[a.length - 1];
-			try {
-				return String.valueOf(caPlayer.getProgress(path));
-			} catch (InvalidAdvancementException e){
-				return ChatColor.DARK_RED + "Invalid path provided in placeholder!";
+	private enum Kind {
+		AVAILABLE, AVAILABLE_TREE, COMPLETED, COMPLETED_TREE, ACTIVE, ACTIVE_TREE, PROGRESS_PERCENTAGE, PROGRESS, MAX_PROGRESS, MEET_REQUIREMENTS, UNKNOWN
+	}
 
-			}
-		}
+	/**
+	 * A parsed identifier, the argument is the tree label or advancement path following the prefix
+	 */
+	private static final class Placeholder {
+		private final Kind kind;
+		private final String argument;
 
-		if (identifier.startsWith("max_progress_")) {
-			val a = identifier.split("_");
-			val path = a[a.length - 1];
-			try {
-				val advancement = CustomAdvancements.getAdvancementManager().getAdvancement(path);
-				return String.valueOf(advancement.getMaxProgress());
-			} catch (final InvalidAdvancementException ex) {
-				return ChatColor.DARK_RED + "Invalid path provided in placeholder!";
-			}
+		private Placeholder(final Kind kind, final String argument) {
+			this.kind = kind;
+			this.argument = argument;
 		}
 
-		if (identifier.startsWith("meet_requirements_")) {
-			val a = identifier.split("_");
-			val path = a[a.length - 1];
-			try {
-				val advancement = CustomAdvancements.getAdvancementManager().getAdvancement(path);
-				return String.valueOf(advancement.meetRequirements(player));
-			} catch (final InvalidAdvancementException ex) {
-				return ChatColor.DARK_RED + "Invalid path provided in placeholder!";
-			}
+		private static Placeholder parse(final String identifier) {
+			if (identifier.equalsIgnoreCase("available_advancements")) return new Placeholder(Kind.AVAILABLE, null);
+			if (identifier.startsWith("available_advancements_")) return new Placeholder(Kind.AVAILABLE_TREE, identifier.substring("available_advancements_".length()));
+			if (identifier.equalsIgnoreCase("completed_advancements")) return new Placeholder(Kind.COMPLETED, null);
+			if (identifier.startsWith("completed_advancements_")) return new Placeholder(Kind.COMPLETED_TREE, identifier.substring("completed_advancements_".length()));
+			if (identifier.equalsIgnoreCase("active_advancements")) return new Placeholder(Kind.ACTIVE, null);
+			if (identifier.startsWith("active_advancements_")) return new Placeholder(Kind.ACTIVE_TREE, identifier.substring("active_advancements_".length()));
+			if (identifier.startsWith("progress_percentage_")) return new Placeholder(Kind.PROGRESS_PERCENTAGE, identifier.substring("progress_percentage_".length()));
+			if (identifier.startsWith("progress_")) return new Placeholder(Kind.PROGRESS, identifier.substring("progress_".length()));
+			if (identifier.startsWith("max_progress_")) return new Placeholder(Kind.MAX_PROGRESS, identifier.substring("max_progress_".length()));
+			if (identifier.startsWith("meet_requirements_")) return new Placeholder(Kind.MEET_REQUIREMENTS, identifier.substring("meet_requirements_".length()));
+			return new Placeholder(Kind.UNKNOWN, null);
 		}
-
-
-		// We return null if an invalid placeholder (f.e. %someplugin_placeholder3%) 
-		// was provided
-		return null;
 	}
 }
@@ -0,0 +1,137 @@
+package me.tippie.customadvancements.advancement;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.requirement.AdvancementRequirement;
+import me.tippie.customadvancements.advancement.requirement.types.Advancement;
+
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Represents the requirement graph between all loaded {@link CAdvancement}'s.
+ * An edge exists from an advancement to every advancement it requires through an {@link Advancement} requirement.
+ */
+public class AdvancementDependencyGraph {
+
+	/**
+	 * Map with key the path of an advancement and value the paths of the advancements that require it
+	 */
+	private final ImmutableMap<String, ImmutableSet<String>> dependents;
+
+	/**
+	 * Paths of all advancements that are part of a requirement cycle and can therefore never be activated
+	 */
+	private final ImmutableSet<String> cyclic;
+
+	private AdvancementDependencyGraph(final Map<String, Set<String>> dependents, final Set<String> cyclic) {
+		this.dependents = freeze(dependents);
+		this.cyclic = ImmutableSet.copyOf(cyclic);
+	}
+
+	/**
+	 * Builds the dependency graph of the given trees and logs every requirement cycle found
+	 *
+	 * @param trees all loaded {@link AdvancementTree}'s
+	 * @return the {@link AdvancementDependencyGraph} of the given trees
+	 */
+	public static AdvancementDependencyGraph build(final Collection<AdvancementTree> trees) {
+		final Map<String, CAdvancement> advancements = new HashMap<>();
+		for (final AdvancementTree tree : trees) {
+			for (final CAdvancement advancement : tree.getAdvancements()) {
+				advancements.put(advancement.getPath(), advancement);
+			}
+		}
+
+		final Map<String, Set<String>> dependencies = new HashMap<>();
+		final Map<String, Set<String>> dependents = new HashMap<>();
+		for (final CAdvancement advancement : advancements.values()) {
+			for (final AdvancementRequirement requirement : advancement.getRequirements()) {
+				if (!(requirement.getType() instanceof Advancement)) continue;
+				final String required = requirement.getValue();
+				if (!advancements.containsKey(required)) {
+					CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "Advancement '" + advancement.getPath() + "' requires advancement '" + required + "' which does not exist!");
+					continue;
+				}
+				dependencies.computeIfAbsent(advancement.getPath(), k -> new LinkedHashSet<>()).add(required);
+				dependents.computeIfAbsent(required, k -> new LinkedHashSet<>()).add(advancement.getPath());
+			}
+		}
+
+		return new AdvancementDependencyGraph(dependents, findCycles(dependencies));
+	}
+
+	/**
+	 * Finds all advancements that are part of a cycle using an iterative depth first search
+	 *
+	 * @param dependencies the forward edges of the graph
+	 * @return set of all paths that are part of a cycle
+	 */
+	private static Set<String> findCycles(final Map<String, Set<String>> dependencies) {
+		final Set<String> cyclic = new HashSet<>();
+		final Set<String> visited = new HashSet<>();
+		final Set<String> onStack = new HashSet<>();
+
+		for (final String start : dependencies.keySet()) {
+			if (visited.contains(start)) continue;
+			final Deque<String> stack = new ArrayDeque<>();
+			final Deque<Iterator<String>> iterators = new ArrayDeque<>();
+			stack.push(start);
+			iterators.push(dependencies.getOrDefault(start, Collections.emptySet()).iterator());
+			visited.add(start);
+			onStack.add(start);
+
+			while (!stack.isEmpty()) {
+				final Iterator<String> iterator = iterators.peek();
+				if (!iterator.hasNext()) {
+					onStack.remove(stack.pop());
+					iterators.pop();
+					continue;
+				}
+				final String next = iterator.next();
+				if (onStack.contains(next)) {
+					final List<String> cycle = new ArrayList<>();
+					for (final String path : stack) {
+						cycle.add(0, path);
+						if (path.equals(next)) break;
+					}
+					cyclic.addAll(cycle);
+					cycle.add(next);
+					CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Advancement requirements contain a cycle, these advancements can never be activated: " + String.join(" -> ", cycle));
+				} else if (visited.add(next)) {
+					stack.push(next);
+					iterators.push(dependencies.getOrDefault(next, Collections.emptySet()).iterator());
+					onStack.add(next);
+				}
+			}
+		}
+		return cyclic;
+	}
+
+	private static ImmutableMap<String, ImmutableSet<String>> freeze(final Map<String, Set<String>> map) {
+		final ImmutableMap.Builder<String, ImmutableSet<String>> builder = ImmutableMap.builder();
+		map.forEach((key, value) -> builder.put(key, ImmutableSet.copyOf(value)));
+		return builder.build();
+	}
+
+	/**
+	 * Gets the advancements that directly require the given advancement
+	 *
+	 * @param path The path of an advancement formatted as 'treeLabel.advancementLabel'
+	 * @return set of paths of the advancements that require the given advancement
+	 */
+	public Set<String> getDependents(final String path) {
+		return dependents.getOrDefault(path, ImmutableSet.of());
+	}
+
+	/**
+	 * Checks if an advancement is part of a requirement cycle
+	 *
+	 * @param path The path of an advancement formatted as 'treeLabel.advancementLabel'
+	 * @return true if the advancement is part of a cycle
+	 */
+	public boolean isCyclic(final String path) {
+		return cyclic.contains(path);
+	}
+}
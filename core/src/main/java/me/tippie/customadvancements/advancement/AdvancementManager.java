@@ -9,6 +9,8 @@ import me.tippie.customadvancements.advancement.types.AdvancementType;
 import me.tippie.customadvancements.advancement.types.Empty;
 import org.bukkit.Bukkit;
 import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
 
 import java.io.File;
 import java.io.IOException;
@@ -16,6 +18,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
 /**
@@ -28,9 +33,17 @@ public class AdvancementManager {
      */
     private final Map<String, AdvancementType> advancementTypes = new HashMap<>();
     /**
-     * Map with key tree label and value the {@link AdvancementTree} belonging to it.
+     * The currently published generation of all loaded {@link AdvancementTree}'s, replaced as a whole on every load.
      */
-    private final Map<String, AdvancementTree> advancementTrees = new HashMap<>();
+    private final AtomicReference<AdvancementRegistrySnapshot> snapshot = new AtomicReference<>(AdvancementRegistrySnapshot.EMPTY);
+    /**
+     * The generation of the last built {@link AdvancementRegistrySnapshot}.
+     */
+    private final AtomicLong generations = new AtomicLong();
+    /**
+     * The future of the last started reload, completed exceptionally if the plugin disables before it is done.
+     */
+    private CompletableFuture<AdvancementRegistrySnapshot> reloading;
     /**
      * Map with key tree label and value the {@link AdvancementRewardType} belonging to it.
      */
@@ -39,6 +52,10 @@ public class AdvancementManager {
      * Map with key tree label and value the {@link AdvancementRewardType} belonging to it.
      */
     private final Map<String, AdvancementRequirementType> advancementRequirementTypes = new HashMap<>();
+    /**
+     * The {@link AdvancementType}'s whose event handlers are currently registered, only types used by a loaded advancement are.
+     */
+    private final Set<AdvancementType> listeningTypes = new HashSet<>();
 
 
     /**
@@ -54,8 +71,9 @@ public class AdvancementManager {
      * @param advancementType the instance of an advancement type
      */
     public void registerAdvancement(final AdvancementType advancementType) {
-        CustomAdvancements.getInstance().getServer().getPluginManager().registerEvents(advancementType, CustomAdvancements.getInstance());
-        advancementTypes.put(advancementType.getLabel(), advancementType);
+        final AdvancementType previous = advancementTypes.put(advancementType.getLabel(), advancementType);
+        if (previous != null && listeningTypes.remove(previous)) HandlerList.unregisterAll(previous);
+        if (updateListener(advancementType)) advancementType.scheduleTasks(snapshot.get());
     }
 
     /**
@@ -80,10 +98,57 @@ public class AdvancementManager {
     }
 
     /**
-     * Loads the advancement trees and puts them into {@link AdvancementManager#advancementTrees}
+     * Loads the advancement trees and publishes them right away, must be called on the main thread.
      */
     public void loadAdvancements() {
-        advancementTrees.clear();
+        publish(buildSnapshot());
+    }
+
+    /**
+     * Loads the advancement trees off the main thread, the returned future is completed on the main thread with the
+     * built snapshot once it is ready. The snapshot is not published yet, so the currently loaded trees stay in use
+     * until the caller has finished its own work and calls {@link AdvancementManager#publish(AdvancementRegistrySnapshot)}.
+     *
+     * @return a future of the built {@link AdvancementRegistrySnapshot}
+     */
+    public CompletableFuture<AdvancementRegistrySnapshot> reloadAdvancements() {
+        final Plugin plugin = CustomAdvancements.getInstance();
+        final CompletableFuture<AdvancementRegistrySnapshot> future = new CompletableFuture<>();
+        reloading = future;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                final AdvancementRegistrySnapshot built = buildSnapshot();
+                completeSync(plugin, future, () -> future.complete(built));
+            } catch (final Throwable e) {
+                completeSync(plugin, future, () -> future.completeExceptionally(e));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Completes a reload future on the main thread, or exceptionally right away if the plugin was disabled meanwhile
+     *
+     * @param plugin the plugin to schedule the task for
+     * @param future the future of the reload
+     * @param task   the task that completes the future
+     */
+    private static void completeSync(final Plugin plugin, final CompletableFuture<?> future, final Runnable task) {
+        try {
+            Bukkit.getScheduler().runTask(plugin, task);
+        } catch (final IllegalPluginAccessException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Reads all advancement trees from the advancement-trees folder into a new {@link AdvancementRegistrySnapshot}.
+     * Nothing is published, so this may be called from any thread.
+     *
+     * @return the built {@link AdvancementRegistrySnapshot}
+     */
+    private AdvancementRegistrySnapshot buildSnapshot() {
+        final long generation = generations.incrementAndGet();
         final Path advancementFolder = Paths.get(CustomAdvancements.getInstance().getDataFolder() + "/advancement-trees");
         if (!Files.exists(advancementFolder)) {
             try {
@@ -96,6 +161,8 @@ public class AdvancementManager {
         final File dir = new File(advancementFolder.toString());
         final File[] advancementDirectoryContent = dir.listFiles();
         assert advancementDirectoryContent != null;
+        Arrays.sort(advancementDirectoryContent);
+        final List<AdvancementTree> trees = new ArrayList<>();
         for (final File file : advancementDirectoryContent) {
             if (file.getName().endsWith(".yml")) {
                 try {
@@ -104,12 +171,99 @@ public class AdvancementManager {
                         CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Advancement tree file name '" + file.getName() + "' contains spaces, this is not allowed.");
                         continue;
                     }
-                    advancementTrees.put(file.getName().split(".yml")[0], tree);
+                    trees.add(tree);
                 } catch (IllegalArgumentException e) {
                     CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Advancement tree has invalid name '" + file.getName() + "'. Make sure it only contains letters, numbers and underscores.");
                 }
             }
         }
+        return new AdvancementRegistrySnapshot(generation, trees);
+    }
+
+    /**
+     * Replaces the loaded trees with the given snapshot in a single swap, cancels the tasks of the replaced snapshot and
+     * lets every registered type precompile its values and schedule its tasks. Must be called on the main thread.
+     *
+     * @param built the {@link AdvancementRegistrySnapshot} to publish
+     * @return false if a newer snapshot was already published, the given snapshot is then discarded
+     */
+    public boolean publish(final AdvancementRegistrySnapshot built) {
+        final AdvancementRegistrySnapshot previous = snapshot.get();
+        if (built.getGeneration() <= previous.getGeneration()) {
+            built.close();
+            return false;
+        }
+        snapshot.set(built);
+        previous.close();
+        for (final AdvancementType type : advancementTypes.values()) {
+            type.onAdvancementsLoaded(built.getAdvancements(type));
+            if (updateListener(type)) type.scheduleTasks(built);
+        }
+        return true;
+    }
+
+    /**
+     * Registers the event handlers of an advancement type if at least one loaded advancement uses it, and unregisters them otherwise.
+     *
+     * @param type the {@link AdvancementType}
+     * @return true if the type is listening after the update
+     */
+    private boolean updateListener(final AdvancementType type) {
+        if (!getAdvancements(type).isEmpty()) {
+            if (listeningTypes.add(type))
+                CustomAdvancements.getInstance().getServer().getPluginManager().registerEvents(type, CustomAdvancements.getInstance());
+            return true;
+        } else if (listeningTypes.remove(type)) {
+            HandlerList.unregisterAll(type);
+        }
+        return false;
+    }
+
+    /**
+     * Gets the currently published generation of all loaded trees, everything read from it belongs to the same load
+     *
+     * @return the current {@link AdvancementRegistrySnapshot}
+     */
+    public AdvancementRegistrySnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Gets the generation of the currently published snapshot
+     *
+     * @return the generation, 0 before the first load
+     */
+    public long getGeneration() {
+        return snapshot.get().getGeneration();
+    }
+
+    /**
+     * Checks if the event handlers of an advancement type are registered
+     *
+     * @param type the {@link AdvancementType}
+     * @return true if at least one loaded advancement uses this type
+     */
+    public boolean isListening(final AdvancementType type) {
+        return listeningTypes.contains(type);
+    }
+
+    /**
+     * Gets all loaded advancements of an advancement type
+     *
+     * @param type the {@link AdvancementType}
+     * @return unmodifiable list of all {@link CAdvancement}'s of the given type
+     */
+    public List<CAdvancement> getAdvancements(final AdvancementType type) {
+        return snapshot.get().getAdvancements(type);
+    }
+
+    /**
+     * Gets the requirement graph of all loaded advancements
+     *
+     * @return the {@link AdvancementDependencyGraph} of the currently loaded trees
+     */
+    public AdvancementDependencyGraph getDependencyGraph() {
+        return snapshot.get().getDependencyGraph();
     }
 
     /**
@@ -124,6 +278,15 @@ public class AdvancementManager {
         getAdvancementTree(treeLabel).complete(advancementLabel, playeruuid);
     }
 
+    /**
+     * Gets the amount of loaded trees, every tree has an {@link AdvancementTree#getIndex()} below this amount
+     *
+     * @return the amount of loaded {@link AdvancementTree}'s
+     */
+    public int getAdvancementTreeCount() {
+        return snapshot.get().getAdvancementTrees().size();
+    }
+
     /**
      * Searches for the advancement type using the label it is registered with.
      *
@@ -135,23 +298,24 @@ public class AdvancementManager {
     }
 
     /**
-     * Converts map {@link AdvancementManager#advancementTrees} into a list and returns it.
+     * Converts the trees of the current {@link AdvancementRegistrySnapshot} into a list and returns it.
      *
      * @return list of all registered {@link AdvancementTree}'s
      */
     public List<AdvancementTree> getAdvancementTrees() {
-        return new ArrayList<>(advancementTrees.values());
+        return new ArrayList<>(snapshot.get().getAdvancementTrees());
     }
 
     /**
-     * Searches {@link AdvancementManager#advancementTrees} for the tree matching the label
+     * Searches the current {@link AdvancementRegistrySnapshot} for the tree matching the label
      *
      * @param label the unique label of an {@link AdvancementTree}
      * @return the {@link AdvancementTree} of the label given as input
      */
     public AdvancementTree getAdvancementTree(final String label) throws InvalidAdvancementException {
-        if (advancementTrees.get(label) == null) throw new InvalidAdvancementException();
-        return advancementTrees.get(label);
+        final AdvancementTree tree = snapshot.get().getAdvancementTree(label);
+        if (tree == null) throw new InvalidAdvancementException();
+        return tree;
     }
 
     /**
@@ -220,12 +384,16 @@ public class AdvancementManager {
 
     /**
      * Unregisters all listeners, {@link AdvancementType}'s, {@link AdvancementTree}'s, {@link AdvancementRewardType}'s, {@link AdvancementRequirementType}'s
+     * and cancels the tasks of the current {@link AdvancementRegistrySnapshot}
      */
     public void unregisterAll() {
-        advancementTypes.values().forEach(HandlerList::unregisterAll);
+        if (reloading != null) reloading.completeExceptionally(new IllegalStateException("The plugin was disabled during the reload"));
+        reloading = null;
+        listeningTypes.forEach(HandlerList::unregisterAll);
+        listeningTypes.clear();
 
         advancementTypes.clear();
-        advancementTrees.clear();
+        snapshot.getAndSet(AdvancementRegistrySnapshot.EMPTY).close();
         advancementRewardTypes.clear();
         advancementRequirementTypes.clear();
     }
@@ -0,0 +1,124 @@
+package me.tippie.customadvancements.advancement;
+
+import lombok.Getter;
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.types.AdvancementType;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Represents one loaded generation of all {@link AdvancementTree}'s.
+ * A snapshot is built completely before it is published by the {@link AdvancementManager} and never changes afterwards,
+ * so everything read from a single snapshot belongs to the same generation. Repeating tasks of {@link AdvancementType}'s
+ * are owned by the snapshot that scheduled them and are cancelled once it is replaced.
+ */
+public final class AdvancementRegistrySnapshot {
+
+	/**
+	 * The empty snapshot that is published before the first load
+	 */
+	static final AdvancementRegistrySnapshot EMPTY = new AdvancementRegistrySnapshot(0, Collections.emptyList());
+
+	/**
+	 * The generation of this snapshot, every newly built snapshot has a higher generation than all snapshots built before it
+	 */
+	@Getter private final long generation;
+
+	/**
+	 * Map with key tree label and value the {@link AdvancementTree} belonging to it, ordered by {@link AdvancementTree#getIndex()}
+	 */
+	private final Map<String, AdvancementTree> trees;
+
+	/**
+	 * Unmodifiable list of all trees of this snapshot, ordered by {@link AdvancementTree#getIndex()}
+	 */
+	@Getter private final List<AdvancementTree> advancementTrees;
+
+	/**
+	 * Map with key an {@link AdvancementType} and value all {@link CAdvancement}'s of that type
+	 */
+	private final Map<AdvancementType, List<CAdvancement>> advancementsByType;
+
+	/**
+	 * The requirement graph between all advancements of this snapshot
+	 */
+	@Getter private final AdvancementDependencyGraph dependencyGraph;
+
+	/**
+	 * The repeating tasks owned by this snapshot
+	 */
+	private final List<BukkitTask> tasks = new ArrayList<>();
+	private boolean closed = false;
+
+	/**
+	 * Builds a snapshot of the given trees, their indexes are assigned in the given order
+	 *
+	 * @param generation the generation of the snapshot
+	 * @param trees      all trees of the snapshot
+	 */
+	AdvancementRegistrySnapshot(final long generation, final Collection<AdvancementTree> trees) {
+		this.generation = generation;
+		final Map<String, AdvancementTree> byLabel = new LinkedHashMap<>();
+		final Map<AdvancementType, List<CAdvancement>> byType = new HashMap<>();
+		int index = 0;
+		for (final AdvancementTree tree : trees) {
+			tree.setIndex(index++);
+			byLabel.put(tree.getLabel(), tree);
+			for (final CAdvancement advancement : tree.getAdvancements()) {
+				byType.computeIfAbsent(advancement.getType(), k -> new ArrayList<>()).add(advancement);
+			}
+		}
+		byType.replaceAll((type, advancements) -> Collections.unmodifiableList(advancements));
+		this.trees = Collections.unmodifiableMap(byLabel);
+		this.advancementTrees = Collections.unmodifiableList(new ArrayList<>(byLabel.values()));
+		this.advancementsByType = Collections.unmodifiableMap(byType);
+		this.dependencyGraph = AdvancementDependencyGraph.build(advancementTrees);
+	}
+
+	/**
+	 * Gets a tree of this snapshot
+	 *
+	 * @param label the unique label of an {@link AdvancementTree}
+	 * @return the {@link AdvancementTree} of the label, or null if this snapshot has no such tree
+	 */
+	public AdvancementTree getAdvancementTree(final String label) {
+		return trees.get(label);
+	}
+
+	/**
+	 * Gets all advancements of an advancement type in this snapshot
+	 *
+	 * @param type the {@link AdvancementType}
+	 * @return unmodifiable list of all {@link CAdvancement}'s of the given type
+	 */
+	public List<CAdvancement> getAdvancements(final AdvancementType type) {
+		return advancementsByType.getOrDefault(type, Collections.emptyList());
+	}
+
+	/**
+	 * Schedules a repeating task on the main thread that is cancelled once this snapshot is replaced.
+	 * Must be called on the main thread, scheduling on a replaced snapshot does nothing.
+	 *
+	 * @param task   the task
+	 * @param delay  ticks before the first run
+	 * @param period ticks between runs
+	 * @return the scheduled {@link BukkitTask}, or null if this snapshot was already replaced
+	 */
+	public BukkitTask runTaskTimer(final Runnable task, final long delay, final long period) {
+		if (closed) return null;
+		final BukkitTask scheduled = Bukkit.getScheduler().runTaskTimer(CustomAdvancements.getInstance(), task, delay, period);
+		tasks.add(scheduled);
+		return scheduled;
+	}
+
+	/**
+	 * Cancels all tasks owned by this snapshot, called by the {@link AdvancementManager} when it is replaced
+	 */
+	void close() {
+		closed = true;
+		tasks.forEach(BukkitTask::cancel);
+		tasks.clear();
+	}
+}
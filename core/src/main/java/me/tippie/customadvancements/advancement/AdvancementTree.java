@@ -7,7 +7,6 @@ import me.tippie.customadvancements.CustomAdvancements;
 import me.tippie.customadvancements.advancement.requirement.AdvancementRequirement;
 import me.tippie.customadvancements.advancement.reward.AdvancementReward;
 import me.tippie.customadvancements.util.Utils;
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -45,6 +44,11 @@ public class AdvancementTree {
 
 	@Getter private AdvancementTreeList treeList;
 
+	/**
+	 * The position of this tree among the loaded trees, assigned on every load and used to index per-player counters
+	 */
+	@Getter private int index = -1;
+
 	/**
 	 * Creates a new {@link AdvancementTree} out of the given file
 	 *
@@ -332,6 +336,10 @@ public class AdvancementTree {
 		return advancements.get(label);
 	}
 
+	void setIndex(final int index) {
+		this.index = index;
+	}
+
 	/**
 	 * Executes the complete actions of this tree
 	 *
@@ -342,7 +350,7 @@ public class AdvancementTree {
 		if (advancements.get(completedLabel) == null) throw new InvalidAdvancementException();
 		advancements.get(completedLabel).complete(uuid);
 		if (CustomAdvancements.getCaPlayerManager().getPlayer(uuid).amountCompleted(this.label) >= advancements.size()) {
-			this.options.onComplete(Bukkit.getPlayer(uuid));
+			this.options.onComplete(uuid);
 		}
 	}
 }
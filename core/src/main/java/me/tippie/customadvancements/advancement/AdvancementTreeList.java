@@ -36,11 +36,14 @@ public class AdvancementTreeList {
 	}
 
 	private static void makeChildren(AdvancementTree tree, Set<ChildAdvancement> advancements) {
+		Map<CAdvancement, ChildAdvancement> byAdvancement = new IdentityHashMap<>();
+		for (ChildAdvancement node : advancements) {
+			byAdvancement.put(node.advancement, node);
+		}
 		for (ChildAdvancement child : advancements) {
 			if (child.parent != null) {
-				advancements.stream()
-						.filter(parent -> parent.advancement == child.parent)
-						.forEach(parent -> parent.children.add(child));
+				ChildAdvancement parent = byAdvancement.get(child.parent);
+				if (parent != null) parent.children.add(child);
 			}
 		}
 	}
@@ -8,6 +8,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Represents the options of an AdvancementTree
@@ -94,6 +95,17 @@ public class AdvancementTreeOptions {
 		}
 	}
 
+	/**
+	 * Gives the rewards of this tree to a player, also when they are offline
+	 *
+	 * @param playeruuid the uuid of the player that completed this tree
+	 */
+	public void onComplete(final UUID playeruuid) {
+		for (final AdvancementReward reward : rewards) {
+			reward.onComplete(playeruuid);
+		}
+	}
+
 	/**
 	 * Gets the display name of this tree formatted with color coding
 	 *
@@ -0,0 +1,223 @@
+package me.tippie.customadvancements.advancement;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.reward.AdvancementReward;
+import me.tippie.customadvancements.player.CAPlayer;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.HoverEvent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.api.chat.TranslatableComponent;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Collects advancement completions and the rewards they grant, and handles them on the main thread once per tick.
+ * Chat announcements are built once per completion and once per distinct (PlaceholderAPI resolved) description,
+ * rewards keep their delay but at most a configured amount of them is given per tick. Rewards of players that are offline
+ * by then are appended to the pending rewards file once per tick, off the main thread.
+ */
+public class CompletionPipeline {
+	/**
+	 * Ticks between completing an advancement and giving its rewards
+	 */
+	private static final long REWARD_DELAY = 10L;
+
+	/**
+	 * Completions of this tick that should be announced in chat
+	 */
+	private final Queue<Announcement> announcements = new ArrayDeque<>();
+
+	/**
+	 * Rewards waiting to be given, in the order they are due
+	 */
+	private final Queue<QueuedReward> rewards = new ArrayDeque<>();
+
+	/**
+	 * Map with key the uuid of an offline player and value the rewards that should be appended to their pending rewards
+	 */
+	private final Map<UUID, List<AdvancementReward>> appends = new LinkedHashMap<>();
+
+	/**
+	 * The last queued write of the pending rewards file, writes run one after another
+	 */
+	private CompletableFuture<Void> writing = CompletableFuture.completedFuture(null);
+
+	/**
+	 * Maximum amount of rewards given per tick, read from {@code rewards.per-tick-budget} on (re)load
+	 */
+	private volatile int rewardBudget = 20;
+
+	private long tick = 0;
+
+	/**
+	 * Creates a new {@link CompletionPipeline}, call {@link CompletionPipeline#tick()} every tick on the main thread
+	 */
+	public CompletionPipeline() {
+		loadConfig(CustomAdvancements.getInstance().getConfig());
+	}
+
+	/**
+	 * Reads the amount of rewards given per tick, MAKE SURE THIS IS CALLED on reload!!
+	 *
+	 * @param config the plugin config
+	 */
+	public void loadConfig(final FileConfiguration config) {
+		rewardBudget = Math.max(1, config.getInt("rewards.per-tick-budget", 20));
+	}
+
+	/**
+	 * Queues the chat announcement of a completed advancement, MAKE SURE THIS IS CALLED SYNC!!
+	 *
+	 * @param advancement the completed advancement
+	 * @param player      the player that completed it
+	 */
+	public void announce(final CAdvancement advancement, final Player player) {
+		announcements.add(new Announcement(advancement, player.getName()));
+	}
+
+	/**
+	 * Queues a reward for a player, it is given after a short delay or added to their pending rewards if they are offline by then.
+	 * MAKE SURE THIS IS CALLED SYNC!!
+	 *
+	 * @param reward     the reward that should be given
+	 * @param playeruuid the uuid of the player the reward belongs to
+	 */
+	public void reward(final AdvancementReward reward, final UUID playeruuid) {
+		rewards.add(new QueuedReward(reward, playeruuid, tick + REWARD_DELAY));
+	}
+
+	/**
+	 * Sends all queued announcements and gives the due rewards within the budget of this tick
+	 */
+	public void tick() {
+		tick++;
+		if (announcements.isEmpty() && (rewards.isEmpty() || rewards.peek().due > tick)) return;
+		final long start = CustomAdvancements.getProfiler().start();
+		if (!announcements.isEmpty()) {
+			final Collection<? extends Player> recipients = Bukkit.getOnlinePlayers();
+			for (Announcement announcement; (announcement = announcements.poll()) != null; ) {
+				send(announcement, recipients);
+			}
+		}
+
+		int given = 0;
+		while (given < rewardBudget && !rewards.isEmpty() && rewards.peek().due <= tick) {
+			give(rewards.poll());
+			given++;
+		}
+		writeAppends(false);
+		CustomAdvancements.getProfiler().recordPipeline(start);
+	}
+
+	/**
+	 * Sends the queued announcements and moves every queued reward to the pending rewards of its player, so nothing is lost
+	 * when the plugin disables or reloads. The pending rewards of offline players are written before this returns.
+	 * MAKE SURE THIS IS CALLED SYNC and before the players are saved!!
+	 */
+	public void flushPending() {
+		if (!announcements.isEmpty()) {
+			final Collection<? extends Player> recipients = Bukkit.getOnlinePlayers();
+			for (Announcement announcement; (announcement = announcements.poll()) != null; ) {
+				send(announcement, recipients);
+			}
+		}
+		for (QueuedReward queued; (queued = rewards.poll()) != null; ) {
+			addPending(queued);
+		}
+		writeAppends(true);
+	}
+
+	/**
+	 * Gets the amount of rewards waiting to be given
+	 *
+	 * @return the amount of queued rewards
+	 */
+	public int getQueuedRewards() {
+		return rewards.size();
+	}
+
+	private void send(final Announcement announcement, final Collection<? extends Player> recipients) {
+		final CAdvancement advancement = announcement.advancement;
+		final String name = "[" + ChatColor.translateAlternateColorCodes('&', advancement.getDisplayName()) + "]";
+		final net.md_5.bungee.api.ChatColor color = advancement.getMinecraftGuiFrame() == CAdvancement.Frame.CHALLENGE ? ChatColor.DARK_PURPLE.asBungee() : ChatColor.GREEN.asBungee();
+		final String translation = "chat.type.advancement." + advancement.getMinecraftGuiFrame().getValue().toLowerCase();
+
+		final Map<String, List<Player>> byDescription = new LinkedHashMap<>();
+		for (final Player recipient : recipients) {
+			byDescription.computeIfAbsent(advancement.getDescription(recipient), k -> new ArrayList<>()).add(recipient);
+		}
+		for (final Map.Entry<String, List<Player>> entry : byDescription.entrySet()) {
+			final BaseComponent description = new TextComponent(entry.getKey());
+			description.setColor(ChatColor.GRAY.asBungee());
+			final BaseComponent component = new TextComponent(name);
+			component.setColor(color);
+			component.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, new BaseComponent[]{description}));
+			final BaseComponent message = new TranslatableComponent(translation, announcement.playerName, component);
+			for (final Player recipient : entry.getValue()) {
+				recipient.spigot().sendMessage(ChatMessageType.SYSTEM, message);
+			}
+		}
+	}
+
+	private void give(final QueuedReward queued) {
+		final Player player = Bukkit.getPlayer(queued.playeruuid);
+		if (player != null && player.isOnline()) {
+			queued.reward.getType().onReward(queued.reward.getValue(), player);
+		} else {
+			addPending(queued);
+		}
+	}
+
+	/**
+	 * Adds a reward to the pending rewards of its player. The rewards of offline players are always written to the pending
+	 * rewards file, a player that just left was saved already and is unloaded without saving again.
+	 */
+	private void addPending(final QueuedReward queued) {
+		final CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(queued.playeruuid);
+		if (caPlayer != null) caPlayer.addPendingReward(queued.reward);
+		if (Bukkit.getPlayer(queued.playeruuid) == null)
+			appends.computeIfAbsent(queued.playeruuid, k -> new ArrayList<>()).add(queued.reward);
+	}
+
+	/**
+	 * Writes the rewards collected in {@link CompletionPipeline#appends} to the pending rewards file in one go
+	 *
+	 * @param sync true to write on this thread once the earlier writes are done, false to queue the write off the main thread
+	 */
+	private void writeAppends(final boolean sync) {
+		if (sync) writing.join();
+		if (appends.isEmpty()) return;
+		final Map<UUID, List<AdvancementReward>> batch = new LinkedHashMap<>(appends);
+		appends.clear();
+		if (sync) CAPlayer.appendPendingRewards(batch);
+		else writing = writing.thenRunAsync(() -> CAPlayer.appendPendingRewards(batch));
+	}
+
+	private static final class Announcement {
+		private final CAdvancement advancement;
+		private final String playerName;
+
+		private Announcement(final CAdvancement advancement, final String playerName) {
+			this.advancement = advancement;
+			this.playerName = playerName;
+		}
+	}
+
+	private static final class QueuedReward {
+		private final AdvancementReward reward;
+		private final UUID playeruuid;
+		private final long due;
+
+		private QueuedReward(final AdvancementReward reward, final UUID playeruuid, final long due) {
+			this.reward = reward;
+			this.playeruuid = playeruuid;
+			this.due = due;
+		}
+	}
+}
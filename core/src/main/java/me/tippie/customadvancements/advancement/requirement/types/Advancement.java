@@ -46,6 +46,15 @@ public class Advancement extends AdvancementRequirementType {
 		return isMet(value, player);
 	}
 
+	/**
+	 * Results only change when an advancement is completed, which invalidates the cache
+	 *
+	 * @return false
+	 */
+	@Override public boolean isVolatile() {
+		return false;
+	}
+
 	/**
 	 * Gets the default message of this requirement type
 	 *
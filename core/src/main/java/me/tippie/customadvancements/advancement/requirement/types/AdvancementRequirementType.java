@@ -38,6 +38,17 @@ public abstract class AdvancementRequirementType {
 	 */
 	public abstract boolean activate(String value, Player player);
 
+	/**
+	 * Checks if the result of this requirement type can change without an advancement being completed, for example
+	 * when it depends on permissions. Volatile results are only cached for the configured time to live.
+	 *
+	 * @return true if results of this requirement type may change at any time
+	 * @see me.tippie.customadvancements.player.RequirementCache
+	 */
+	public boolean isVolatile() {
+		return true;
+	}
+
 	/**
 	 * Compares {@link AdvancementRequirementType}'s with an label
 	 *
@@ -18,6 +18,7 @@ public class Permission extends AdvancementRequirementType {
 	 * @return boolean if the requirement is met
 	 */
 	@Override public boolean isMet(final String value, final Player player) {
+		if (player == null) return false;
 		return player.hasPermission(value);
 	}
 
@@ -29,7 +30,7 @@ public class Permission extends AdvancementRequirementType {
 	 * @return boolean if the requirement is met
 	 */
 	@Override public boolean activate(final String value, final Player player) {
-		return player.hasPermission(value);
+		return isMet(value, player);
 	}
 
 	/**
@@ -1,11 +1,12 @@
 package me.tippie.customadvancements.advancement.reward;
 
 import lombok.Getter;
-import lombok.val;
 import me.tippie.customadvancements.CustomAdvancements;
 import me.tippie.customadvancements.advancement.reward.types.AdvancementRewardType;
 import org.bukkit.entity.Player;
 
+import java.util.UUID;
+
 /**
  * Represents a reward given after an advancement(tree) is completed.
  */
@@ -30,15 +31,18 @@ public class AdvancementReward {
 	 * @param player the player this reward should be executed for
 	 */
 	public void onComplete(final Player player) {
-		val value = this.value;
-		val reward = this;
-		CustomAdvancements.getInstance().getServer().getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> {
-			if (player.isOnline()) {
+		if (player == null) return;
+		onComplete(player.getUniqueId());
+	}
 
-				type.onReward(value, player);
-			} else {
-				CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId()).addPendingReward(reward);
-			}
-		}, 10L);
+	/**
+	 * Complete this reward and executes the actions for this the {@link AdvancementRewardType} after a short delay,
+	 * the reward is added to the pending rewards of the player if they are offline by then
+	 *
+	 * @param playeruuid the uuid of the player this reward should be executed for
+	 * @see me.tippie.customadvancements.advancement.CompletionPipeline
+	 */
+	public void onComplete(final UUID playeruuid) {
+		CustomAdvancements.getCompletionPipeline().reward(this, playeruuid);
 	}
 }
@@ -4,16 +4,16 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.val;
 import me.tippie.customadvancements.CustomAdvancements;
-import me.tippie.customadvancements.advancement.AdvancementTree;
+import me.tippie.customadvancements.advancement.AdvancementRegistrySnapshot;
 import me.tippie.customadvancements.advancement.CAdvancement;
 import me.tippie.customadvancements.advancement.InvalidAdvancementException;
 import org.bukkit.Bukkit;
 import org.bukkit.event.Listener;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /**
  * Represents a type of an {@link CAdvancement}
@@ -51,36 +51,72 @@ public abstract class AdvancementType<T> implements Listener {
 	public void progress(final T event, final UUID playeruuid) {
 		val caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(playeruuid);
 		if (caPlayer != null) {
-			for (final AdvancementTree tree : CustomAdvancements.getAdvancementManager().getAdvancementTrees()) {
-				final List<CAdvancement> advancements = tree.getAdvancements().stream().filter(advancement -> advancement.getType().equals(this.label)).collect(Collectors.toList());
-				for (final CAdvancement advancement : advancements) {
-					try {
-						if (caPlayer.checkIfAdvancementActive(tree.getLabel() + "." + advancement.getLabel())) {
-							onProgress(event, advancement.getValue(), tree.getLabel() + "." + advancement.getLabel());
-						}
-					} catch (final InvalidAdvancementException ex) {
-						CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "An advancement type tried to check an invalid advancement: " + tree.getLabel() + "." + advancement.getLabel());
+			final long start = CustomAdvancements.getProfiler().start();
+			int matched = 0;
+			for (final CAdvancement advancement : getAdvancements()) {
+				try {
+					if (caPlayer.checkIfAdvancementActive(advancement.getPath())) {
+						matched++;
+						onProgress(event, advancement.getValue(), advancement.getPath());
 					}
+				} catch (final InvalidAdvancementException ex) {
+					CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "An advancement type tried to check an invalid advancement: " + advancement.getPath());
 				}
 			}
+			CustomAdvancements.getProfiler().recordEvent(label, matched, start);
 		} else {
 			CustomAdvancements.getCaPlayerManager().getOfflinePlayer(playeruuid).thenAccept(player -> {
-				for (final AdvancementTree tree : CustomAdvancements.getAdvancementManager().getAdvancementTrees()) {
-					final List<CAdvancement> advancements = tree.getAdvancements().stream().filter(advancement -> advancement.getType().equals(this.label)).collect(Collectors.toList());
-					for (final CAdvancement advancement : advancements) {
-						try {
-							if (player.checkIfAdvancementActive(tree.getLabel() + "." + advancement.getLabel())) {
-								Bukkit.getScheduler().runTask(CustomAdvancements.getInstance(), () -> onProgress(event, advancement.getValue(), tree.getLabel() + "." + advancement.getLabel()));
-							}
-						} catch (final InvalidAdvancementException ex) {
-							CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "An advancement type tried to check an invalid advancement: " + tree.getLabel() + "." + advancement.getLabel());
-						}
+				final List<CAdvancement> active = new ArrayList<>();
+				for (final CAdvancement advancement : getAdvancements()) {
+					try {
+						if (player.checkIfAdvancementActive(advancement.getPath())) active.add(advancement);
+					} catch (final InvalidAdvancementException ex) {
+						CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "An advancement type tried to check an invalid advancement: " + advancement.getPath());
 					}
 				}
+				if (active.isEmpty()) return;
+				Bukkit.getScheduler().runTask(CustomAdvancements.getInstance(), () -> {
+					for (final CAdvancement advancement : active) onProgress(event, advancement.getValue(), advancement.getPath());
+				});
 			});
 		}
 	}
 
+	/**
+	 * Gets all loaded advancements of this type
+	 *
+	 * @return unmodifiable list of all {@link CAdvancement}'s of this type
+	 */
+	protected List<CAdvancement> getAdvancements() {
+		return CustomAdvancements.getAdvancementManager().getAdvancements(this);
+	}
+
+	/**
+	 * Called after the advancement trees are (re)loaded, types can override this to precompile the values of their advancements
+	 *
+	 * @param advancements all loaded {@link CAdvancement}'s of this type
+	 */
+	public void onAdvancementsLoaded(final List<CAdvancement> advancements) {
+	}
+
+	/**
+	 * Called after a snapshot is published for every type used by at least one of its advancements, types can override this
+	 * to schedule their repeating tasks with {@link AdvancementRegistrySnapshot#runTaskTimer(Runnable, long, long)} so they are
+	 * cancelled once the snapshot is replaced.
+	 *
+	 * @param snapshot the published {@link AdvancementRegistrySnapshot}
+	 */
+	public void scheduleTasks(final AdvancementRegistrySnapshot snapshot) {
+	}
+
+	/**
+	 * Called on the main thread right before the loaded players are saved on disable and before a reload replaces the
+	 * loaded trees, types that keep progress or other player state in memory can override this to hand it over to the
+	 * players first. Types are flushed even if they no longer listen, since no task of theirs flushes them afterwards.
+	 */
+	public void flush() {
+	}
+
 	/**
 	 * Called when progress is made
 	 *
@@ -103,7 +139,8 @@ public abstract class AdvancementType<T> implements Listener {
 	}
 
 	/**
-	 * Called when progression is made on an advancement
+	 * Called when progression is made on an advancement. The progression is queued on the {@link me.tippie.customadvancements.player.ProgressBus}
+	 * and applied at the start of the next tick, so this is safe to call from any thread.
 	 *
 	 * @param amount     amount of progress that should be made, can be negative
 	 * @param path       path of the advancement progression should be made for
@@ -111,12 +148,22 @@ public abstract class AdvancementType<T> implements Listener {
 	 * @param set        boolean if the amount value should be added to the progress or the progress should be set to the amount
 	 */
 	public void progression(final int amount, final String path, final UUID playeruuid, boolean set) {
-		val caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(playeruuid);
-		try {
-			caPlayer.updateProgress(path, amount, true, set);
-		} catch (final InvalidAdvancementException ex) {
-			CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "AdvancementType " + this.label + " attempting to add progression to an invalid advancement!");
-		}
+		CustomAdvancements.getProfiler().recordProgression(label);
+		CustomAdvancements.getProgressBus().enqueue(playeruuid, path, amount, set);
+	}
+
+	/**
+	 * Queues progression that is only applied if the advancement is still active for the player once the
+	 * {@link me.tippie.customadvancements.player.ProgressBus} applies it. For types that match events off the main thread
+	 * and cannot check that themselves, safe to call from any thread.
+	 *
+	 * @param amount     amount of progress that should be made
+	 * @param path       path of the advancement progression should be made for
+	 * @param playeruuid the UUID of the player progression should be made for
+	 */
+	protected void progressionIfActive(final int amount, final String path, final UUID playeruuid) {
+		CustomAdvancements.getProfiler().recordProgression(label);
+		CustomAdvancements.getProgressBus().enqueueIfActive(playeruuid, path, amount);
 	}
 
 	/**
@@ -1,26 +1,161 @@
 package me.tippie.customadvancements.advancement.types;
 
 import lombok.val;
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.AdvancementRegistrySnapshot;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.advancement.InvalidAdvancementException;
 import me.tippie.customadvancements.util.Lang;
+import org.bukkit.Location;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-public class BlocksTravelled extends AdvancementType<PlayerMoveEvent> {
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Represents the blockstravelled {@link AdvancementType}
+ * Horizontal distance is accumulated per player on every move and flushed into progress on an interval,
+ * or right away once the accumulated distance could complete one of the player's advancements.
+ * Vertical movement is not counted, so jumping, falling and elevators do not make progress.
+ */
+public class BlocksTravelled extends AdvancementType<BlocksTravelled.Travel> {
+
+	/**
+	 * Map with key the uuid of a player and value the slot of their accumulator
+	 */
+	private final Map<UUID, Integer> slots = new HashMap<>();
+	private UUID[] owners = new UUID[16];
+	private double[] distance = new double[16];
+
+	/**
+	 * Accumulated distance at which a slot is flushed early, 0 when unknown
+	 */
+	private int[] threshold = new int[16];
+	private int[] freeSlots = new int[16];
+	private int freeCount = 0;
+	private int used = 0;
 
 	public BlocksTravelled() {
 		super("blockstravelled", Lang.ADVANCEMENT_TYPE_BLOCKSTRAVELLED_UNIT.getString());
 	}
 
+	@Override
+	public void scheduleTasks(final AdvancementRegistrySnapshot snapshot) {
+		final long interval = Math.max(1, CustomAdvancements.getInstance().getConfig().getLong("blocks-travelled.flush-interval", 100));
+		snapshot.runTaskTimer(this::flush, interval, interval);
+	}
+
 	@EventHandler
 	public void onBlockMove(final PlayerMoveEvent e) {
-		if (e.getTo() == null) return;
-		if ((int) e.getFrom().getX() != (int) e.getTo().getX() || (int) e.getFrom().getZ() != (int) e.getTo().getZ()) {
-			progress(e, e.getPlayer().getUniqueId());
+		final Location to = e.getTo();
+		if (to == null || getAdvancements().isEmpty()) return;
+		final Location from = e.getFrom();
+		if (from.getWorld() != to.getWorld()) return;
+		final double dx = to.getX() - from.getX(), dz = to.getZ() - from.getZ();
+		final double squared = dx * dx + dz * dz;
+		if (squared == 0) return;
+
+		final int slot = slot(e.getPlayer().getUniqueId());
+		distance[slot] += Math.sqrt(squared);
+		if (threshold[slot] > 0 && distance[slot] >= threshold[slot]) flush(slot);
+	}
+
+	@EventHandler
+	public void onQuit(final PlayerQuitEvent e) {
+		final Integer slot = slots.remove(e.getPlayer().getUniqueId());
+		if (slot == null) return;
+		flush(slot);
+		owners[slot] = null;
+		distance[slot] = 0;
+		threshold[slot] = 0;
+		if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+		freeSlots[freeCount++] = slot;
+	}
+
+	private int slot(final UUID uuid) {
+		final Integer existing = slots.get(uuid);
+		if (existing != null) return existing;
+		final int slot;
+		if (freeCount > 0) {
+			slot = freeSlots[--freeCount];
+		} else {
+			if (used == owners.length) {
+				owners = Arrays.copyOf(owners, used * 2);
+				distance = Arrays.copyOf(distance, used * 2);
+				threshold = Arrays.copyOf(threshold, used * 2);
+			}
+			slot = used++;
 		}
+		owners[slot] = uuid;
+		threshold[slot] = remaining(uuid, 0);
+		slots.put(uuid, slot);
+		return slot;
 	}
 
-	@Override protected void onProgress(final PlayerMoveEvent e, final String value, final String path) {
-		if (e.getTo() == null) return;
-		progression((int) Math.max(1, Math.round(e.getFrom().distance(e.getTo()))), path, e.getPlayer().getUniqueId());
+	/**
+	 * Converts the whole blocks accumulated by every player into progress
+	 */
+	@Override
+	public void flush() {
+		for (int slot = 0; slot < used; slot++) {
+			if (owners[slot] != null) flush(slot);
+		}
+	}
+
+	/**
+	 * Converts the whole blocks accumulated in a slot into progress and recalculates the distance at which it should be flushed early
+	 *
+	 * @param slot the slot of the accumulator
+	 */
+	private void flush(final int slot) {
+		final int blocks = (int) distance[slot];
+		if (blocks <= 0) return;
+		distance[slot] -= blocks;
+		val uuid = owners[slot];
+		threshold[slot] = remaining(uuid, blocks);
+		progress(new Travel(uuid, blocks), uuid);
+	}
+
+	/**
+	 * Gets the smallest distance left to complete any of the active blockstravelled advancements of a player
+	 *
+	 * @param uuid    the uuid of the player
+	 * @param flushed the blocks that are being flushed but are not part of the progress yet
+	 * @return the remaining distance, or 0 if unknown
+	 */
+	private int remaining(final UUID uuid, final int flushed) {
+		val caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(uuid);
+		if (caPlayer == null) return 0;
+		int result = Integer.MAX_VALUE;
+		for (final CAdvancement advancement : getAdvancements()) {
+			try {
+				if (!caPlayer.checkIfAdvancementActive(advancement.getPath())) continue;
+				final int left = advancement.getMaxProgress() - caPlayer.getProgress(advancement.getPath()) - flushed;
+				if (left > 0 && left < result) result = left;
+			} catch (final InvalidAdvancementException ignored) {
+			}
+		}
+		return result == Integer.MAX_VALUE ? 0 : result;
+	}
+
+	@Override protected void onProgress(final Travel travel, final String value, final String path) {
+		progression(travel.blocks, path, travel.uuid);
+	}
+
+	/**
+	 * Whole blocks travelled by a player since the last flush
+	 */
+	public static final class Travel {
+		private final UUID uuid;
+		private final int blocks;
+
+		private Travel(final UUID uuid, final int blocks) {
+			this.uuid = uuid;
+			this.blocks = blocks;
+		}
 	}
 }
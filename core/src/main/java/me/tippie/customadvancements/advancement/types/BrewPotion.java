@@ -1,11 +1,17 @@
 package me.tippie.customadvancements.advancement.types;
 
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.util.Utils;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
+import org.bukkit.block.BrewingStand;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.inventory.BrewEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.inventory.BrewerInventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.PotionMeta;
@@ -13,50 +19,129 @@ import org.bukkit.potion.PotionEffectType;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.logging.Level;
 
+/**
+ * Represents the brew {@link AdvancementType}
+ * The player who put each potion into a brewing stand is tracked per world by packed block position, tracked stands are
+ * forgotten when they are broken, when their chunk unloads or when the least recently used stand is evicted.
+ */
 public class BrewPotion extends AdvancementType<Map.Entry<UUID, ItemStack>> {
 
+	/**
+	 * The private results field of {@link BrewEvent}, null if this server version does not have it
+	 */
+	private static final Field RESULTS;
+
+	static {
+		Field field;
+		try {
+			field = BrewEvent.class.getDeclaredField("results");
+			field.setAccessible(true);
+		} catch (final NoSuchFieldException | SecurityException e) {
+			field = null;
+		}
+		RESULTS = field;
+	}
+
+	/**
+	 * Map with key the uuid of a world and value the brewing stands tracked in it
+	 */
+	private final Map<UUID, TrackedStands> worlds = new HashMap<>();
+
+	/**
+	 * Map with key the value of a brew advancement and value the potion effect types it lists
+	 */
+	private Map<String, Set<PotionEffectType>> filters = new HashMap<>();
+
 	public BrewPotion() {
 		super("brew", "potions");
 	}
 
-	private final HashMap<Block, HashMap<Integer, UUID>> itemTrackMap = new HashMap<>();
-
 	@EventHandler
 	public void onBrewBreak(BlockBreakEvent event) {
-		if (event.getBlock().getType().equals(Material.BREWING_STAND))
-			itemTrackMap.keySet().removeIf(k -> k.getX() == event.getBlock().getX() && k.getY() == event.getBlock().getY() && k.getZ() == event.getBlock().getZ());
+		if (!event.getBlock().getType().equals(Material.BREWING_STAND)) return;
+		final TrackedStands stands = worlds.get(event.getBlock().getWorld().getUID());
+		if (stands != null) stands.remove(event.getBlock());
+	}
 
+	@EventHandler
+	public void onChunkUnload(ChunkUnloadEvent event) {
+		final TrackedStands stands = worlds.get(event.getWorld().getUID());
+		if (stands == null) return;
+		stands.removeChunk(chunkKey(event.getChunk().getX(), event.getChunk().getZ()));
+		if (stands.isEmpty()) worlds.remove(event.getWorld().getUID());
 	}
 
 	@EventHandler
 	public void onInventoryPut(InventoryClickEvent event) {
 		if (!(event.getClickedInventory() instanceof BrewerInventory) || event.getRawSlot() > 2) return;
-		itemTrackMap.computeIfAbsent(((BrewerInventory) event.getClickedInventory()).getHolder().getBlock(), k -> new HashMap<>());
-		HashMap<Integer, UUID> trackMap = itemTrackMap.get(((BrewerInventory) event.getClickedInventory()).getHolder().getBlock());
+		if (!event.isLeftClick() && !event.isRightClick()) return;
+		final BrewingStand holder = ((BrewerInventory) event.getClickedInventory()).getHolder();
+		if (holder == null) return;
+		final Block block = holder.getBlock();
 
-		if ((event.isLeftClick() || event.isRightClick()) && event.getCurrentItem() != null && !event.getCurrentItem().getType().equals(Material.AIR)) {
-			trackMap.put(event.getRawSlot(), null);
-		}
-		if ((event.isLeftClick() || event.isRightClick()) && event.getCursor() != null && !event.getCursor().getType().equals(Material.AIR))
-			trackMap.put(event.getRawSlot(), event.getWhoClicked().getUniqueId());
+		final boolean taken = event.getCurrentItem() != null && !event.getCurrentItem().getType().equals(Material.AIR);
+		final boolean placed = event.getCursor() != null && !event.getCursor().getType().equals(Material.AIR);
+		if (!taken && !placed) return;
 
+		final UUID[] slots = worlds.computeIfAbsent(block.getWorld().getUID(), k -> new TrackedStands(getMaxTrackedStands())).slots(block);
+		if (taken) slots[event.getRawSlot()] = null;
+		if (placed) slots[event.getRawSlot()] = event.getWhoClicked().getUniqueId();
 	}
 
 	@EventHandler
-	public void onBrew(BrewEvent e) throws NoSuchFieldException, IllegalAccessException {
-		Field field = e.getClass().getDeclaredField("results");
-		field.setAccessible(true);
-		ArrayList<ItemStack> results = (ArrayList<ItemStack>) field.get(e);
+	public void onBrew(BrewEvent e) {
+		final TrackedStands stands = worlds.get(e.getBlock().getWorld().getUID());
+		if (stands == null) return;
+		final UUID[] slots = stands.get(e.getBlock());
+		if (slots == null) return;
+
+		final List<ItemStack> results = results(e);
+		if (results != null) {
+			brewed(slots, results);
+		} else {
+			final UUID[] brewers = slots.clone();
+			Bukkit.getScheduler().runTask(CustomAdvancements.getInstance(), () -> {
+				final List<ItemStack> contents = new ArrayList<>();
+				for (int i = 0; i < 3; i++) contents.add(e.getContents().getItem(i));
+				brewed(brewers, contents);
+			});
+		}
+	}
+
+	private void brewed(final UUID[] slots, final List<ItemStack> results) {
 		for (int i = 0; i < 3; i++) {
-			if (itemTrackMap.get(e.getContents().getHolder().getBlock()) == null) continue;
-			UUID uuid = itemTrackMap.get(e.getContents().getHolder().getBlock()).get(i);
-			if (uuid != null) {
-				progress(new AbstractMap.SimpleEntry<>(uuid, results.get(i)), uuid);
+			final UUID uuid = slots[i];
+			final ItemStack result = results.get(i);
+			if (uuid != null && result != null && result.getItemMeta() instanceof PotionMeta) {
+				progress(new AbstractMap.SimpleEntry<>(uuid, result), uuid);
 			}
 		}
 	}
 
+	/**
+	 * Reads the results of a brew event, or returns null if they can only be read from the inventory after the event
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<ItemStack> results(final BrewEvent e) {
+		if (RESULTS == null) return null;
+		try {
+			return (List<ItemStack>) RESULTS.get(e);
+		} catch (final IllegalAccessException | ClassCastException ex) {
+			CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "Could not read the results of a brew event", ex);
+			return null;
+		}
+	}
+
+	@Override public void onAdvancementsLoaded(List<CAdvancement> advancements) {
+		final Map<String, Set<PotionEffectType>> compiled = new HashMap<>();
+		for (final CAdvancement advancement : advancements) {
+			if (advancement.getValue() != null) compiled.computeIfAbsent(advancement.getValue(), BrewPotion::compile);
+		}
+		filters = compiled;
+	}
+
 	@Override
 	protected void onProgress(Map.Entry<UUID, ItemStack> event, String value, String path) {
 		ItemStack potion = event.getValue();
@@ -66,21 +151,90 @@ public class BrewPotion extends AdvancementType<Map.Entry<UUID, ItemStack>> {
 		if (value == null || value.equalsIgnoreCase("any")) {
 			progression(1, path, uuid);
 		} else {
-			boolean not = false;
-			if (value.startsWith("!")) {
-				value = value.substring(1);
-				not = true;
+			final Set<PotionEffectType> types = filters.computeIfAbsent(value, BrewPotion::compile);
+			if (types.contains(effect) != value.startsWith("!")) {
+				progression(1, path, uuid);
 			}
-			final List<PotionEffectType> types = new ArrayList<>();
-			final String[] typeStrings = value.split(",");
-			for (final String typeString : typeStrings)
-				types.add(PotionEffectType.getByName(typeString));
+		}
+	}
 
+	private static Set<PotionEffectType> compile(String value) {
+		if (value.startsWith("!")) value = value.substring(1);
+		final Set<PotionEffectType> types = new HashSet<>();
+		for (final String typeString : value.split(","))
+			types.add(PotionEffectType.getByName(typeString));
+		return types;
+	}
 
-			if ((types.contains(effect) && !not) || (!types.contains(effect) && not)) {
-				progression(1, path, uuid);
+	private static int getMaxTrackedStands() {
+		return Math.max(1, CustomAdvancements.getInstance().getConfig().getInt("brew.max-tracked-stands", 1024));
+	}
+
+	private static long chunkKey(final int chunkX, final int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * The brewing stands of a single world, keyed by packed block position, and the player that put the potion in each slot
+	 */
+	private static final class TrackedStands {
+		private final LinkedHashMap<Long, UUID[]> stands;
+
+		/**
+		 * Map with key a packed chunk position and value the packed positions of the stands tracked in that chunk
+		 */
+		private final Map<Long, Set<Long>> chunks = new HashMap<>();
+
+		private TrackedStands(final int maxSize) {
+			this.stands = new LinkedHashMap<Long, UUID[]>(16, 0.75f, true) {
+				@Override protected boolean removeEldestEntry(final Map.Entry<Long, UUID[]> eldest) {
+					if (size() <= maxSize) return false;
+					unindex(eldest.getKey());
+					return true;
+				}
+			};
+		}
+
+		private UUID[] get(final Block block) {
+			return stands.get(position(block));
+		}
+
+		private UUID[] slots(final Block block) {
+			final long position = position(block);
+			UUID[] slots = stands.get(position);
+			if (slots == null) {
+				slots = new UUID[3];
+				chunks.computeIfAbsent(chunkKey(block.getX() >> 4, block.getZ() >> 4), k -> new HashSet<>()).add(position);
+				stands.put(position, slots);
 			}
+			return slots;
+		}
+
+		private void remove(final Block block) {
+			final long position = position(block);
+			if (stands.remove(position) != null) unindex(position);
+		}
+
+		private void removeChunk(final long chunkKey) {
+			final Set<Long> positions = chunks.remove(chunkKey);
+			if (positions == null) return;
+			for (final Long position : positions) stands.remove(position);
+		}
+
+		private void unindex(final long position) {
+			final long chunkKey = chunkKey((int) (position >> 38) >> 4, (int) ((position << 26) >> 38) >> 4);
+			final Set<Long> positions = chunks.get(chunkKey);
+			if (positions == null) return;
+			positions.remove(position);
+			if (positions.isEmpty()) chunks.remove(chunkKey);
+		}
+
+		private boolean isEmpty() {
+			return stands.isEmpty();
+		}
 
+		private static long position(final Block block) {
+			return Utils.packBlockPosition(block.getX(), block.getY(), block.getZ());
 		}
 	}
 }
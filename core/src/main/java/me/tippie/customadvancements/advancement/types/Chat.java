@@ -1,41 +1,97 @@
 package me.tippie.customadvancements.advancement.types;
 
-import lombok.val;
 import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.CAdvancement;
 import me.tippie.customadvancements.util.Lang;
-import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 
-import java.util.concurrent.Callable;
+import java.util.*;
 
+/**
+ * Represents the chat {@link AdvancementType}
+ * Messages are matched on the chat thread against precompiled values, every matched advancement path is queued on the
+ * {@link me.tippie.customadvancements.player.ProgressBus} right away and only applied if it is still active for the player.
+ */
 public class Chat extends AdvancementType<AsyncPlayerChatEvent> {
+
+	/**
+	 * Compiled values of all chat advancements, replaced as a whole on every load so the chat thread always sees a complete set
+	 */
+	private volatile ChatMatcher[] matchers = new ChatMatcher[0];
+
+	/**
+	 * Map with key the path of a chat advancement and value its compiled value, replaced together with {@link Chat#matchers}
+	 */
+	private volatile Map<String, ChatMatcher> matchersByPath = Collections.emptyMap();
+
 	public Chat() {
 		super("chat", Lang.ADVANCEMENT_TYPE_CHAT_UNIT.getString());
 	}
 
 	@EventHandler(ignoreCancelled = true)
 	public void onAsyncChat(final AsyncPlayerChatEvent event) {
-		Bukkit.getScheduler().callSyncMethod(CustomAdvancements.getInstance(), new Callable<Object>() {
-			@Override public Object call() throws Exception {
-				progress(event, event.getPlayer().getUniqueId());
-				return true;
+		final ChatMatcher[] matchers = this.matchers;
+		if (matchers.length == 0) return;
+		final long start = CustomAdvancements.getProfiler().start();
+		final String message = event.getMessage().toLowerCase();
+		final UUID uuid = event.getPlayer().getUniqueId();
+		int matched = 0;
+		for (final ChatMatcher matcher : matchers) {
+			if (matcher.test(message)) {
+				progressionIfActive(1, matcher.path, uuid);
+				matched++;
 			}
-		});
+		}
+		CustomAdvancements.getProfiler().recordEvent(getLabel(), matched, start);
+	}
+
+	@Override public void onAdvancementsLoaded(final List<CAdvancement> advancements) {
+		final ChatMatcher[] compiled = new ChatMatcher[advancements.size()];
+		final Map<String, ChatMatcher> byPath = new HashMap<>();
+		for (int i = 0; i < compiled.length; i++) {
+			compiled[i] = ChatMatcher.compile(advancements.get(i));
+			byPath.put(compiled[i].path, compiled[i]);
+		}
+		matchersByPath = byPath;
+		matchers = compiled;
 	}
 
-	@Override protected void onProgress(final AsyncPlayerChatEvent event, String value, final String path) {
-		if (value == null || value.equalsIgnoreCase("any") || value.equalsIgnoreCase("")) {
+	@Override protected void onProgress(final AsyncPlayerChatEvent event, final String value, final String path) {
+		final ChatMatcher matcher = matchersByPath.get(path);
+		if (matcher != null && matcher.test(event.getMessage().toLowerCase()))
 			progression(1, path, event.getPlayer().getUniqueId());
-		} else {
-			val message = event.getMessage();
+	}
+
+	/**
+	 * An immutable, precompiled chat advancement value. Matches any message when the value is 'any' or empty,
+	 * otherwise messages containing the lower-cased literal, or not containing it when the value starts with '!'.
+	 */
+	private static final class ChatMatcher {
+		private final String path;
+		private final String literal;
+		private final boolean not;
+
+		private ChatMatcher(final String path, final String literal, final boolean not) {
+			this.path = path;
+			this.literal = literal;
+			this.not = not;
+		}
+
+		private static ChatMatcher compile(final CAdvancement advancement) {
+			String value = advancement.getValue();
+			if (value == null || value.equalsIgnoreCase("any") || value.equalsIgnoreCase(""))
+				return new ChatMatcher(advancement.getPath(), null, false);
 			boolean not = false;
 			if (value.startsWith("!")) {
 				value = value.substring(1);
 				not = true;
 			}
-			if ((message.toLowerCase().contains(value.toLowerCase()) && !not) || (!message.toLowerCase().contains(value.toLowerCase()) && not))
-				progression(1, path, event.getPlayer().getUniqueId());
+			return new ChatMatcher(advancement.getPath(), value.toLowerCase(), not);
+		}
+
+		private boolean test(final String lowerCaseMessage) {
+			return literal == null || lowerCaseMessage.contains(literal) != not;
 		}
 	}
 }
@@ -1,7 +1,11 @@
 package me.tippie.customadvancements.advancement.types;
 
 import lombok.val;
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.advancement.InvalidAdvancementException;
 import me.tippie.customadvancements.util.Lang;
+import me.tippie.customadvancements.util.MaterialFilter;
 import org.bukkit.Material;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.inventory.CraftItemEvent;
@@ -10,21 +14,86 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Represents the craftitem {@link AdvancementType}
+ * The advancements matching the crafted material are collected first, the craft amount is only computed when at least
+ * one of them is active for the player, and then once for all of them. The handler records its own dispatch since it
+ * does not go through {@link AdvancementType#progress(Object, java.util.UUID)} for loaded players.
+ */
 public class CraftItem extends AdvancementType<CraftItemEvent> {
+
+	/**
+	 * The compiled value of every advancement, in the order of {@link AdvancementType#getAdvancements()}
+	 */
+	private MaterialFilter[] filters = new MaterialFilter[0];
+
+	/**
+	 * Map with key the value of a craftitem advancement and value its compiled filter, used by the offline path
+	 */
+	private Map<String, MaterialFilter> filtersByValue = new HashMap<>();
+
 	public CraftItem() {
 		super("craftitem", Lang.ADVANCEMENT_TYPE_CRAFTITEM_UNIT.getString());
 	}
 
 	@EventHandler
 	public void onBlockPlace(final CraftItemEvent event) {
-		progress(event, event.getView().getPlayer().getUniqueId());
+		val uuid = event.getView().getPlayer().getUniqueId();
+		val caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(uuid);
+		if (caPlayer == null) {
+			progress(event, uuid);
+			return;
+		}
+
+		final long start = CustomAdvancements.getProfiler().start();
+		final Material result = event.getRecipe().getResult().getType();
+		final List<CAdvancement> advancements = getAdvancements();
+		final MaterialFilter[] filters = this.filters;
+		List<String> matched = null;
+		for (int i = 0; i < filters.length; i++) {
+			if (!filters[i].test(result)) continue;
+			val path = advancements.get(i).getPath();
+			try {
+				if (!caPlayer.checkIfAdvancementActive(path)) continue;
+			} catch (final InvalidAdvancementException ex) {
+				CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "An advancement type tried to check an invalid advancement: " + path);
+				continue;
+			}
+			if (matched == null) matched = new ArrayList<>();
+			matched.add(path);
+		}
+		CustomAdvancements.getProfiler().recordEvent(getLabel(), matched == null ? 0 : matched.size(), start);
+		if (matched == null) return;
+
+		final int amount = getCraftAmount(event);
+		if (amount == 0) return;
+		for (final String path : matched) progression(amount, path, uuid);
+	}
+
+	@Override public void onAdvancementsLoaded(final List<CAdvancement> advancements) {
+		final MaterialFilter[] compiled = new MaterialFilter[advancements.size()];
+		final Map<String, MaterialFilter> byValue = new HashMap<>();
+		for (int i = 0; i < compiled.length; i++) compiled[i] = byValue.computeIfAbsent(advancements.get(i).getValue(), MaterialFilter::compile);
+		filtersByValue = byValue;
+		filters = compiled;
 	}
 
-	@Override protected void onProgress(final CraftItemEvent event, String value, final String path) {
-		val player = event.getView().getPlayer();
+	@Override protected void onProgress(final CraftItemEvent event, final String value, final String path) {
+		MaterialFilter filter = filtersByValue.get(value);
+		if (filter == null) filter = MaterialFilter.compile(value);
+		if (filter.test(event.getRecipe().getResult().getType()))
+			progression(getCraftAmount(event), path, event.getView().getPlayer().getUniqueId());
+	}
 
+	/**
+	 * Computes the amount of items a click on the result slot actually crafts
+	 */
+	private static int getCraftAmount(final CraftItemEvent event) {
 		int recipeAmount = event.getRecipe().getResult().getAmount();
 
 		switch (event.getClick()) {
@@ -52,23 +121,7 @@ public class CraftItem extends AdvancementType<CraftItemEvent> {
 				break;
 			default:
 		}
-
-		if (value == null || value.equalsIgnoreCase("any")) {
-			progression(recipeAmount, path, player.getUniqueId());
-		} else {
-			boolean not = false;
-			if (value.startsWith("!")) {
-				value = value.substring(1);
-				not = true;
-			}
-			final List<Material> materials = new ArrayList<>();
-			final String[] materialStrings = value.split(",");
-			for (final String materialString : materialStrings)
-				materials.add(Material.getMaterial(materialString.toUpperCase()));
-			if ((materials.contains(event.getRecipe().getResult().getType()) && !not) || (!materials.contains(event.getRecipe().getResult().getType()) && not)) {
-				progression(recipeAmount, path, player.getUniqueId());
-			}
-		}
+		return recipeAmount;
 	}
 
 	private static int getMaxCraftAmount(CraftingInventory inventory) {
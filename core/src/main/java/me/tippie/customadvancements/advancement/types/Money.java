@@ -1,32 +1,165 @@
-
 package me.tippie.customadvancements.advancement.types;
 
 
-import lombok.val;
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.AdvancementRegistrySnapshot;
 import me.tippie.customadvancements.util.Lang;
 import net.ess3.api.events.UserBalanceUpdateEvent;
+import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the money {@link AdvancementType}
+ * Balance changes are summed per player as cents and flushed into progress on an interval, or right away on the main
+ * thread once the gained or spent amount reaches the configured threshold. Cents below a whole unit are carried over.
+ */
+public class Money extends AdvancementType<Money.Balance> {
+    private static final BigDecimal CENTS = BigDecimal.valueOf(100);
+
+    /**
+     * Map with key the uuid of a player and value the balance changes that were not flushed yet
+     */
+    private final Map<UUID, Account> accounts = new ConcurrentHashMap<>();
+
+    /**
+     * Amount of gained or spent cents at which an account is flushed before the interval, read again on every (re)load
+     */
+    private volatile long threshold = 1000 * 100;
 
-public class Money extends AdvancementType<UserBalanceUpdateEvent> {
     public Money() {
         super("money", Lang.ADVANCEMENT_TYPE_MONEY_UNIT.getString());
     }
 
+    @Override
+    public void scheduleTasks(final AdvancementRegistrySnapshot snapshot) {
+        threshold = Math.max(1, CustomAdvancements.getInstance().getConfig().getLong("money.flush-threshold", 1000)) * 100;
+        final long interval = Math.max(1, CustomAdvancements.getInstance().getConfig().getLong("money.flush-interval", 100));
+        snapshot.runTaskTimer(this::flush, interval, interval);
+    }
+
     @EventHandler
-    public void onBalanceUpdate(UserBalanceUpdateEvent event){
-        progress(event,event.getPlayer().getUniqueId());
+    public void onBalanceUpdate(UserBalanceUpdateEvent event) {
+        if (event.getPlayer() == null || getAdvancements().isEmpty()) return;
+        final UUID uuid = event.getPlayer().getUniqueId();
+        final long delta = toCents(event.getNewBalance()) - toCents(event.getOldBalance());
+        Account account;
+        boolean full;
+        do {
+            account = accounts.computeIfAbsent(uuid, k -> new Account());
+            synchronized (account) {
+                if (account.removed) continue;
+                if (delta > 0) account.gained += delta;
+                else account.spent -= delta;
+                account.balance = event.getNewBalance();
+                full = account.gained >= threshold || account.spent >= threshold;
+                break;
+            }
+        } while (true);
+        if (full && Bukkit.isPrimaryThread()) flush(uuid, account);
     }
 
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        final UUID uuid = event.getPlayer().getUniqueId();
+        final Account account = accounts.get(uuid);
+        if (account == null) return;
+        flush(uuid, account);
+        remove(uuid, account);
+    }
+
+    /**
+     * Flushes all accounts and removes the ones of offline players that have nothing left to flush,
+     * so payees that never join during this session do not stay in {@link Money#accounts}
+     */
     @Override
-    protected void onProgress(UserBalanceUpdateEvent event, String value, String path) {
-        val player = event.getPlayer();
-        val change = event.getOldBalance().intValue() - event.getNewBalance().intValue();
+    public void flush() {
+        for (final Map.Entry<UUID, Account> entry : accounts.entrySet()) {
+            flush(entry.getKey(), entry.getValue());
+            if (Bukkit.getPlayer(entry.getKey()) == null) remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Removes a flushed account, cents below a whole unit are dropped. An account that changed since it was flushed
+     * is kept for the next flush. Balance updates that race with the removal start a new account.
+     */
+    private void remove(final UUID uuid, final Account account) {
+        synchronized (account) {
+            if (account.balance != null) return;
+            account.removed = true;
+        }
+        accounts.remove(uuid, account);
+    }
+
+    /**
+     * Converts the whole units accumulated in an account into progress, MAKE SURE THIS IS CALLED SYNC!!
+     */
+    private void flush(final UUID uuid, final Account account) {
+        final Balance balance;
+        synchronized (account) {
+            if (account.balance == null) return;
+            balance = new Balance(uuid, account.gained / 100, account.spent / 100, account.balance);
+            account.gained %= 100;
+            account.spent %= 100;
+            account.balance = null;
+        }
+        progress(balance, uuid);
+    }
+
+    private static long toCents(final BigDecimal amount) {
+        return amount.multiply(CENTS).setScale(0, RoundingMode.DOWN).longValue();
+    }
+
+    @Override
+    protected void onProgress(Balance balance, String value, String path) {
         if (value.equalsIgnoreCase("reach")) {
-            progression(event.getNewBalance().intValue(),path,player.getUniqueId(),true);
-        } else if (value.equalsIgnoreCase("gain") && change > 0) {
-            progression(change, path, player.getUniqueId());
-        } else if (value.equalsIgnoreCase("spend") && change < 0) {
-            progression(Math.abs(change), path, player.getUniqueId());
+            progression(balance.reach, path, balance.uuid, true);
+        } else if (value.equalsIgnoreCase("gain") && balance.gained > 0) {
+            progression(balance.gained, path, balance.uuid);
+        } else if (value.equalsIgnoreCase("spend") && balance.spent > 0) {
+            progression(balance.spent, path, balance.uuid);
+        }
+    }
+
+    /**
+     * The balance changes of a player that were not flushed yet, in cents
+     */
+    private static final class Account {
+        private long gained;
+        private long spent;
+
+        /**
+         * The latest balance of the player, null if nothing changed since the last flush
+         */
+        private BigDecimal balance;
+
+        /**
+         * If this account was removed from {@link Money#accounts}, balance changes must go to a new account then
+         */
+        private boolean removed;
+    }
+
+    /**
+     * The whole units a player gained and spent since the last flush and their balance at the moment of flushing
+     */
+    public static final class Balance {
+        private final UUID uuid;
+        private final int gained;
+        private final int spent;
+        private final int reach;
+
+        private Balance(final UUID uuid, final long gained, final long spent, final BigDecimal balance) {
+            this.uuid = uuid;
+            this.gained = (int) Math.min(gained, Integer.MAX_VALUE);
+            this.spent = (int) Math.min(spent, Integer.MAX_VALUE);
+            this.reach = (int) Math.max(Integer.MIN_VALUE, Math.min(balance.longValue(), Integer.MAX_VALUE));
         }
     }
-}
\ No newline at end of file
+}
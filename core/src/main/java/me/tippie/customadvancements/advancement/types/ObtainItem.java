@@ -1,96 +1,122 @@
 package me.tippie.customadvancements.advancement.types;
 
-import lombok.val;
 import me.tippie.customadvancements.CustomAdvancements;
-import me.tippie.customadvancements.advancement.AdvancementManager;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.util.MaterialFilter;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.entity.EntityDropItemEvent;
 import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.event.inventory.InventoryMoveItemEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
-import org.bukkit.event.inventory.InventoryPickupItemEvent;
-import org.bukkit.event.player.PlayerPickupItemEvent;
-import org.bukkit.inventory.InventoryView;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.PlayerInventory;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.*;
+
+/**
+ * Represents the obtainitem {@link AdvancementType}
+ * Inventory changes schedule at most one pending scan per player, every scan builds a single material histogram
+ * that is shared by all obtainitem advancements.
+ */
+public class ObtainItem extends AdvancementType<ObtainItem.Histogram> {
+	private static final int MATERIAL_COUNT = Material.values().length;
+
+	/**
+	 * The uuids of the players that have a scan scheduled
+	 */
+	private final Set<UUID> pending = new HashSet<>();
+
+	/**
+	 * Map with key the value of an obtainitem advancement and value the compiled filter of it
+	 */
+	private Map<String, MaterialFilter> filters = new HashMap<>();
 
-public class ObtainItem extends AdvancementType<PlayerInventory> {
 	public ObtainItem() {
 		super("obtainitem", "items");
 	}
 
 	@EventHandler
 	private void onInventoryEvent(InventoryClickEvent event){
-		Bukkit.getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> progress(event.getWhoClicked().getInventory(), event.getWhoClicked().getUniqueId()), 5L);
+		schedule(event.getWhoClicked());
 	}
 
 	@EventHandler
 	private void onInventoryEvent(InventoryOpenEvent event){
-		if (event.getPlayer() instanceof Player){
-			progress(event.getPlayer().getInventory(), event.getPlayer().getUniqueId());
+		if (event.getPlayer() instanceof Player && !getAdvancements().isEmpty()){
+			scan((Player) event.getPlayer());
 		}
 	}
 
 	@EventHandler
 	private void onInventoryEvent(EntityDropItemEvent event){
 		if (event.getEntity() instanceof Player){
-			Bukkit.getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> progress(((Player) event.getEntity()).getInventory(), event.getEntity().getUniqueId()), 5L);
+			schedule((Player) event.getEntity());
 		}
 	}
 
 	@EventHandler
 	private void onInventoryEvent(EntityPickupItemEvent event){
 		if (event.getEntity() instanceof Player){
-			Bukkit.getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> progress(((Player) event.getEntity()).getInventory(), event.getEntity().getUniqueId()), 5L);
+			schedule((Player) event.getEntity());
 		}
 	}
 
-	@Override protected void onProgress(PlayerInventory e, String value, String path) {
-		Player player = (Player) e.getHolder();
-		if (value == null || value.equalsIgnoreCase("any")) {
-			progression(countContent(e.getContents(), false), path, player.getUniqueId(),true);
-		} else {
-			boolean not = false;
-			if (value.startsWith("!")) {
-				value = value.substring(1);
-				not = true;
-			}
-			final List<Material> materials = new ArrayList<>();
-			final String[] materialStrings = value.split(",");
-			for (final String materialString : materialStrings)
-				materials.add(Material.getMaterial(materialString.toUpperCase()));
-			progression(countContent(e.getContents(),not,materials.toArray(new Material[]{})), path, player.getUniqueId(), true);
+	/**
+	 * Schedules a scan of the inventory of a player, unless one is already pending
+	 */
+	private void schedule(HumanEntity entity) {
+		if (!(entity instanceof Player) || getAdvancements().isEmpty()) return;
+		Player player = (Player) entity;
+		if (!pending.add(player.getUniqueId())) return;
+		Bukkit.getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> {
+			pending.remove(player.getUniqueId());
+			if (player.isOnline()) scan(player);
+		}, 5L);
+	}
+
+	private void scan(Player player) {
+		int[] counts = new int[MATERIAL_COUNT];
+		int total = 0;
+		for (ItemStack item : player.getInventory().getContents()) {
+			if (item == null) continue;
+			counts[item.getType().ordinal()] += item.getAmount();
+			total += item.getAmount();
+		}
+		progress(new Histogram(player.getUniqueId(), counts, total), player.getUniqueId());
+	}
 
+	@Override public void onAdvancementsLoaded(List<CAdvancement> advancements) {
+		Map<String, MaterialFilter> compiled = new HashMap<>();
+		for (CAdvancement advancement : advancements) {
+			if (advancement.getValue() != null) compiled.computeIfAbsent(advancement.getValue(), MaterialFilter::compile);
 		}
+		filters = compiled;
 	}
 
-	private static int countContent(ItemStack[] content, boolean not, Material... materials) {
-		if (materials.length == 0) {
-			return Stream.of(content)
-					.filter(Objects::nonNull)
-					.mapToInt(ItemStack::getAmount)
-					.sum();
-		} else if (!not){
-			return Stream.of(content)
-					.filter(Objects::nonNull)
-					.filter(item -> Stream.of(materials).anyMatch(material -> material == item.getType()))
-					.mapToInt(ItemStack::getAmount)
-					.sum();
+	@Override protected void onProgress(Histogram histogram, String value, String path) {
+		if (value == null || value.equalsIgnoreCase("any")) {
+			progression(histogram.total, path, histogram.uuid, true);
 		} else {
-			return Stream.of(content)
-					.filter(Objects::nonNull)
-					.filter(item -> Stream.of(materials).noneMatch(material -> material == item.getType()))
-					.mapToInt(ItemStack::getAmount)
-					.sum();
+			MaterialFilter filter = filters.computeIfAbsent(value, MaterialFilter::compile);
+			progression(filter.count(histogram.counts, histogram.total), path, histogram.uuid, true);
+		}
+	}
+
+	/**
+	 * The amount of items per {@link Material#ordinal()} in the inventory of a player
+	 */
+	public static final class Histogram {
+		private final UUID uuid;
+		private final int[] counts;
+		private final int total;
+
+		private Histogram(UUID uuid, int[] counts, int total) {
+			this.uuid = uuid;
+			this.counts = counts;
+			this.total = total;
 		}
 	}
 }
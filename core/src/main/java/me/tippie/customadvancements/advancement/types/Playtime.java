@@ -1,38 +1,166 @@
 package me.tippie.customadvancements.advancement.types;
 
-import lombok.val;
 import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.AdvancementRegistrySnapshot;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.player.CAPlayer;
 import me.tippie.customadvancements.util.Lang;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
+/**
+ * Represents the playtime {@link AdvancementType}
+ * Every minute all online players are snapshotted once and credited with the minutes elapsed on their session clock.
+ * Milliseconds that did not make up a whole minute yet are stored in the progress file of the player when they leave.
+ * Calling {@link AdvancementType#progress(Object, UUID)} from elsewhere still credits a single minute in the current world.
+ */
 public class Playtime extends AdvancementType<Player> {
+	private static final long MINUTE = 60_000L;
+
+	/**
+	 * Map with key the uuid of an online player and value the time (in milliseconds) up to which their playtime is credited
+	 */
+	private final Map<UUID, Long> creditedUntil = new HashMap<>();
+
+	/**
+	 * Map with key the uuid of a player and value the whole minutes {@link Playtime#tick()} is crediting to them right now
+	 */
+	private final Map<UUID, Integer> crediting = new HashMap<>();
+
+	/**
+	 * Map with key the value of a playtime advancement and value the compiled world filter of it
+	 */
+	private Map<String, WorldFilter> filters = new HashMap<>();
+
 	public Playtime() {
 		super("playtime", Lang.ADVANCEMENT_TYPE_PLAYTIME_UNIT.getString());
-		Bukkit.getServer().getScheduler().scheduleSyncRepeatingTask(CustomAdvancements.getInstance(), () -> {
-			for (final Player player : Bukkit.getServer().getOnlinePlayers()) {
-				progress(player, player.getUniqueId());
+	}
+
+	/**
+	 * Snapshots all online players and their worlds and credits the whole minutes they played since the last tick
+	 */
+	private void tick() {
+		if (getAdvancements().isEmpty()) return;
+		final long now = System.currentTimeMillis();
+		for (final Player player : Bukkit.getServer().getOnlinePlayers()) {
+			final UUID uuid = player.getUniqueId();
+			final long since = creditedUntil.computeIfAbsent(uuid, k -> now - takeCarry(k));
+			final int minutes = (int) ((now - since) / MINUTE);
+			if (minutes <= 0) continue;
+			creditedUntil.put(uuid, since + minutes * MINUTE);
+			crediting.put(uuid, minutes);
+		}
+		try {
+			for (final Map.Entry<UUID, Integer> entry : crediting.entrySet()) {
+				final Player player = Bukkit.getPlayer(entry.getKey());
+				if (player != null) progress(player, entry.getKey());
 			}
-		}, 10L, 1200L);
+		} finally {
+			crediting.clear();
+		}
+	}
+
+	@Override
+	public void scheduleTasks(final AdvancementRegistrySnapshot snapshot) {
+		snapshot.runTaskTimer(this::tick, 10L, 1200L);
+	}
+
+	/**
+	 * Stores the playtime that was not credited yet of all online players in their progress files, called before they are saved
+	 */
+	@Override
+	public void flush() {
+		final long now = System.currentTimeMillis();
+		for (final Map.Entry<UUID, Long> entry : creditedUntil.entrySet()) {
+			storeCarry(entry.getKey(), now - entry.getValue());
+		}
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onJoin(final PlayerJoinEvent event) {
+		final UUID uuid = event.getPlayer().getUniqueId();
+		creditedUntil.put(uuid, System.currentTimeMillis() - takeCarry(uuid));
+	}
+
+	@EventHandler(priority = EventPriority.LOWEST)
+	public void onQuit(final PlayerQuitEvent event) {
+		final Long since = creditedUntil.remove(event.getPlayer().getUniqueId());
+		if (since != null) storeCarry(event.getPlayer().getUniqueId(), System.currentTimeMillis() - since);
+	}
+
+	/**
+	 * Takes the stored playtime carry of a player out of their progress file
+	 *
+	 * @param uuid the uuid of the player
+	 * @return the milliseconds that were not credited yet, 0 if the player is not loaded
+	 */
+	private long takeCarry(final UUID uuid) {
+		final CAPlayer player = CustomAdvancements.getCaPlayerManager().getPlayer(uuid);
+		if (player == null) return 0;
+		final long carry = player.getAdvancementProgressFile().getPlaytimeCarry();
+		player.getAdvancementProgressFile().setPlaytimeCarry(0);
+		return Math.max(0, carry);
+	}
+
+	/**
+	 * Stores the playtime of a player that was not credited yet in their progress file, it is written when they are saved
+	 */
+	private void storeCarry(final UUID uuid, final long carry) {
+		final CAPlayer player = CustomAdvancements.getCaPlayerManager().getPlayer(uuid);
+		if (player != null) player.getAdvancementProgressFile().setPlaytimeCarry(carry);
+	}
+
+	@Override public void onAdvancementsLoaded(final List<CAdvancement> advancements) {
+		final Map<String, WorldFilter> compiled = new HashMap<>();
+		for (final CAdvancement advancement : advancements) {
+			if (advancement.getValue() != null) compiled.computeIfAbsent(advancement.getValue(), WorldFilter::compile);
+		}
+		filters = compiled;
 	}
 
-	@Override protected void onProgress(final Player player, String value, final String path) {
+	@Override protected void onProgress(final Player player, final String value, final String path) {
+		final UUID uuid = player.getUniqueId();
+		final int minutes = crediting.getOrDefault(uuid, 1);
 		if (value == null || value.equalsIgnoreCase("any") || value.equalsIgnoreCase("")) {
-			progression(1, path, player.getUniqueId());
+			progression(minutes, path, uuid);
 		} else {
-			val worldName = player.getWorld().getName();
+			final WorldFilter filter = filters.computeIfAbsent(value, WorldFilter::compile);
+			if (filter.test(player.getWorld().getName().toLowerCase()))
+				progression(minutes, path, uuid);
+		}
+	}
+
+	/**
+	 * A precompiled set of world names, optionally negated with a leading '!'
+	 */
+	private static final class WorldFilter {
+		private final Set<String> worlds;
+		private final boolean not;
+
+		private WorldFilter(final Set<String> worlds, final boolean not) {
+			this.worlds = worlds;
+			this.not = not;
+		}
+
+		private static WorldFilter compile(String value) {
 			boolean not = false;
 			if (value.startsWith("!")) {
-				value = value.toLowerCase().substring(1);
+				value = value.substring(1);
 				not = true;
 			}
-			List<String> worlds = new ArrayList<>(Arrays.asList(value.split(",")));
-			if ((worlds.contains(worldName) && !not) || (!worlds.contains(worldName) && not))
-				progression(1, path, player.getUniqueId());
+			final Set<String> worlds = new HashSet<>();
+			for (final String world : value.split(",")) worlds.add(world.trim().toLowerCase());
+			return new WorldFilter(worlds, not);
+		}
+
+		private boolean test(final String world) {
+			return worlds.contains(world) != not;
 		}
 	}
 }
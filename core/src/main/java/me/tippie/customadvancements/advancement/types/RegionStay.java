@@ -4,33 +4,145 @@ package me.tippie.customadvancements.advancement.types;
 import com.sk89q.worldedit.bukkit.BukkitWorld;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldguard.WorldGuard;
-import com.sk89q.worldguard.protection.ApplicableRegionSet;
-import me.tippie.customadvancements.CustomAdvancements;
+import com.sk89q.worldguard.protection.managers.RegionManager;
+import me.tippie.customadvancements.advancement.AdvancementRegistrySnapshot;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.util.Utils;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.util.AbstractMap;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
-public class RegionStay extends AdvancementType<Map.Entry<String, Player>> {
+/**
+ * Represents the regionstay {@link AdvancementType}
+ * Every second each player is progressed once for all regions they are in that are used by a regionstay advancement.
+ * The regions at a block are looked up again when the player moves to another block, and at least every
+ * {@link RegionStay#MAX_AGE} seconds so redefined regions are picked up while a player stands still.
+ */
+public class RegionStay extends AdvancementType<RegionStay.Regions> {
+
+	/**
+	 * Seconds after which the cached regions of a player are looked up again even if they did not move
+	 */
+	private static final int MAX_AGE = 5;
+
+	/**
+	 * Map with key the uuid of a player and value their last looked up block position and regions
+	 */
+	private final Map<UUID, CachedRegions> cache = new HashMap<>();
+
+	/**
+	 * All region ids used by any regionstay advancement
+	 */
+	private Set<String> referencedRegions = Collections.emptySet();
+
+	/**
+	 * Map with key the value of a regionstay advancement and value the set of region ids in it
+	 */
+	private Map<String, Set<String>> valueRegions = new HashMap<>();
+
+	/**
+	 * Amount of times {@link RegionStay#tick()} ran, used to age the cached regions
+	 */
+	private long ticks = 0;
 
 	public RegionStay() {
 		super("regionstay", "seconds");
-		Bukkit.getScheduler().scheduleSyncRepeatingTask(CustomAdvancements.getInstance(), () -> {
-			for (Player player : Bukkit.getOnlinePlayers()) {
-				List<String> regions = WorldGuard.getInstance().getPlatform().getRegionContainer().get(new BukkitWorld(player.getWorld()))
-						.getApplicableRegionsIDs(BlockVector3.at(player.getLocation().getX(),player.getLocation().getY(),player.getLocation().getZ()));
+	}
+
+	private void tick() {
+		if (referencedRegions.isEmpty()) return;
+		ticks++;
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			Location location = player.getLocation();
+			UUID world = player.getWorld().getUID();
+			long position = Utils.packBlockPosition(location.getBlockX(), location.getBlockY(), location.getBlockZ());
 
-				regions.forEach(region -> progress(new AbstractMap.SimpleEntry<>(region,player),player.getUniqueId()));
+			CachedRegions cached = cache.get(player.getUniqueId());
+			if (cached == null || cached.position != position || !cached.world.equals(world) || ticks - cached.lookedUpAt >= MAX_AGE) {
+				cached = new CachedRegions(world, position, ticks, lookup(player, location));
+				cache.put(player.getUniqueId(), cached);
 			}
-		}, 20L, 20L);
+			if (!cached.regions.isEmpty())
+				progress(new Regions(player.getUniqueId(), cached.regions), player.getUniqueId());
+		}
+	}
+
+	@Override
+	public void scheduleTasks(final AdvancementRegistrySnapshot snapshot) {
+		snapshot.runTaskTimer(this::tick, 20L, 20L);
 	}
 
-	@Override protected void onProgress(Map.Entry<String, Player> entry, String value, String path) {
-		if (Arrays.stream(value.split(",")).anyMatch(str -> str.equals(entry.getKey()))){
-			progression(1,path, entry.getValue().getUniqueId());
+	/**
+	 * Looks up the regions at a location through WorldGuard, only keeping regions used by any regionstay advancement
+	 */
+	private Set<String> lookup(Player player, Location location) {
+		RegionManager manager = WorldGuard.getInstance().getPlatform().getRegionContainer().get(new BukkitWorld(player.getWorld()));
+		if (manager == null) return Collections.emptySet();
+		Set<String> result = new HashSet<>();
+		for (String region : manager.getApplicableRegionsIDs(BlockVector3.at(location.getBlockX(), location.getBlockY(), location.getBlockZ()))) {
+			if (referencedRegions.contains(region)) result.add(region);
+		}
+		return result.isEmpty() ? Collections.emptySet() : result;
+	}
+
+	@EventHandler
+	public void onQuit(PlayerQuitEvent event) {
+		cache.remove(event.getPlayer().getUniqueId());
+	}
+
+	@Override public void onAdvancementsLoaded(List<CAdvancement> advancements) {
+		Set<String> referenced = new HashSet<>();
+		Map<String, Set<String>> compiled = new HashMap<>();
+		for (CAdvancement advancement : advancements) {
+			if (advancement.getValue() == null) continue;
+			Set<String> regions = compiled.computeIfAbsent(advancement.getValue(), value -> new HashSet<>(Arrays.asList(value.split(","))));
+			referenced.addAll(regions);
+		}
+		valueRegions = compiled;
+		referencedRegions = referenced;
+		cache.clear();
+	}
+
+	@Override protected void onProgress(Regions regions, String value, String path) {
+		if (value == null) return;
+		Set<String> wanted = valueRegions.get(value);
+		if (wanted == null) return;
+		for (String region : regions.regions) {
+			if (wanted.contains(region)) {
+				progression(1, path, regions.uuid);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * The regions a player is in that are used by any regionstay advancement
+	 */
+	public static final class Regions {
+		private final UUID uuid;
+		private final Set<String> regions;
+
+		private Regions(UUID uuid, Set<String> regions) {
+			this.uuid = uuid;
+			this.regions = regions;
+		}
+	}
+
+	private static final class CachedRegions {
+		private final UUID world;
+		private final long position;
+		private final long lookedUpAt;
+		private final Set<String> regions;
+
+		private CachedRegions(UUID world, long position, long lookedUpAt, Set<String> regions) {
+			this.world = world;
+			this.position = position;
+			this.lookedUpAt = lookedUpAt;
+			this.regions = regions;
 		}
 	}
 }
@@ -1,7 +1,6 @@
 package me.tippie.customadvancements.advancement.types;
 
-import me.tippie.customadvancements.CustomAdvancements;
-import org.bukkit.Bukkit;
+import me.tippie.customadvancements.advancement.AdvancementRegistrySnapshot;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
@@ -14,7 +13,11 @@ import java.util.*;
 public class RideEntity extends AdvancementType<Map.Entry<Entity, Map.Entry<Player, Location>>> {
     public RideEntity() {
         super("rideentity", "blocks");
-        Bukkit.getScheduler().runTaskTimer(CustomAdvancements.getInstance(),() -> {
+    }
+
+    @Override
+    public void scheduleTasks(final AdvancementRegistrySnapshot snapshot) {
+        snapshot.runTaskTimer(() -> {
            for (Map.Entry<Entity, Map.Entry<Player, Location>> entry : ((HashMap<Entity, Map.Entry<Player, Location>>) mountedEntities.clone()).entrySet()){
                 if (!entry.getKey().getPassengers().contains(entry.getValue().getKey())) mountedEntities.remove(entry.getKey());
                 progress(entry,entry.getValue().getKey().getUniqueId());
@@ -1,39 +1,161 @@
 package me.tippie.customadvancements.advancement.types;
 
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.advancement.InvalidAdvancementException;
+import me.tippie.customadvancements.player.CAPlayer;
 import me.tippie.customadvancements.util.Lang;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.player.PlayerStatisticIncrementEvent;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.logging.Level;
 
+/**
+ * Represents the statistic {@link AdvancementType}
+ * Advancement values are compiled into an index by {@link org.bukkit.Statistic} when the trees are loaded, statistics
+ * no advancement subscribes to are ignored before any advancement or player is looked at. The handler makes progress
+ * itself instead of going through {@link AdvancementType#progress(Object, UUID)}, so it records its own dispatch.
+ */
 public class Statistic extends AdvancementType<PlayerStatisticIncrementEvent> {
+	private static final int[] NONE = new int[0];
+
+	/**
+	 * Map with key a statistic and value the indices (in {@link AdvancementType#getAdvancements()}) of the advancements listing it
+	 */
+	private Map<org.bukkit.Statistic, int[]> byStatistic = new EnumMap<>(org.bukkit.Statistic.class);
+
+	/**
+	 * Indices of the advancements that match every statistic
+	 */
+	private int[] any = NONE;
+
+	/**
+	 * Advancements whose value starts with '!' and match every statistic not listed
+	 */
+	private List<Negation> negated = Collections.emptyList();
+
+	/**
+	 * Map with key the value of a statistic advancement and value the statistics it lists
+	 */
+	private Map<String, Set<org.bukkit.Statistic>> filters = new HashMap<>();
+
 	public Statistic() {
 		super("statistic", Lang.ADVANCEMENT_TYPE_STATISTIC_UNIT.getString());
 	}
 
 	@EventHandler
 	public void onStatisticChange(final PlayerStatisticIncrementEvent event) {
-		progress(event, event.getPlayer().getUniqueId());
+		final int[] listed = byStatistic.get(event.getStatistic());
+		if (listed == null && any.length == 0 && negated.isEmpty()) return;
+
+		final UUID uuid = event.getPlayer().getUniqueId();
+		final CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(uuid);
+		if (caPlayer == null) return;
+		final long start = CustomAdvancements.getProfiler().start();
+		final List<CAdvancement> advancements = getAdvancements();
+		final int increment = event.getNewValue() - event.getPreviousValue();
+
+		int matched = 0;
+		if (listed != null) for (final int index : listed) matched += progress(caPlayer, advancements.get(index), increment, uuid);
+		for (final int index : any) matched += progress(caPlayer, advancements.get(index), 1, uuid);
+		for (final Negation negation : negated) {
+			if (!negation.statistics.contains(event.getStatistic()))
+				matched += progress(caPlayer, advancements.get(negation.index), increment, uuid);
+		}
+		CustomAdvancements.getProfiler().recordEvent(getLabel(), matched, start);
 	}
 
-	@Override protected void onProgress(final PlayerStatisticIncrementEvent event, String value, final String path) {
+	/**
+	 * Makes progress on an advancement if it is active for the player
+	 *
+	 * @return 1 if the advancement was active, 0 otherwise
+	 */
+	private int progress(final CAPlayer caPlayer, final CAdvancement advancement, final int amount, final UUID uuid) {
+		try {
+			if (!caPlayer.checkIfAdvancementActive(advancement.getPath())) return 0;
+			progression(amount, advancement.getPath(), uuid);
+			return 1;
+		} catch (final InvalidAdvancementException ex) {
+			CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "An advancement type tried to check an invalid advancement: " + advancement.getPath());
+			return 0;
+		}
+	}
+
+	@Override public void onAdvancementsLoaded(final List<CAdvancement> advancements) {
+		final Map<org.bukkit.Statistic, List<Integer>> listed = new EnumMap<>(org.bukkit.Statistic.class);
+		final List<Integer> any = new ArrayList<>();
+		final List<Negation> negated = new ArrayList<>();
+		final Map<String, Set<org.bukkit.Statistic>> filters = new HashMap<>();
+
+		for (int i = 0; i < advancements.size(); i++) {
+			final String value = advancements.get(i).getValue();
+			if (value == null || value.equalsIgnoreCase("any")) {
+				any.add(i);
+				continue;
+			}
+			final Set<org.bukkit.Statistic> statistics = filters.computeIfAbsent(value, Statistic::compile);
+			if (value.startsWith("!")) {
+				negated.add(new Negation(i, statistics));
+			} else {
+				for (final org.bukkit.Statistic statistic : statistics)
+					listed.computeIfAbsent(statistic, k -> new ArrayList<>()).add(i);
+			}
+		}
+
+		final Map<org.bukkit.Statistic, int[]> index = new EnumMap<>(org.bukkit.Statistic.class);
+		listed.forEach((statistic, indices) -> index.put(statistic, toArray(indices)));
+		this.byStatistic = index;
+		this.any = toArray(any);
+		this.negated = negated;
+		this.filters = filters;
+	}
+
+	@Override protected void onProgress(final PlayerStatisticIncrementEvent event, final String value, final String path) {
 		if (value == null || value.equalsIgnoreCase("any")) {
 			progression(1, path, event.getPlayer().getUniqueId());
 		} else {
-			boolean not = false;
-			if (value.startsWith("!")) {
-				value = value.substring(1);
-				not = true;
-			}
-			final List<org.bukkit.Statistic> statistics = new ArrayList<>();
-			final String[] statisticStrings = value.split(",");
-			for (final String statisticsString : statisticStrings)
-				statistics.add(org.bukkit.Statistic.valueOf(statisticsString.toUpperCase()));
-			if ((statistics.contains(event.getStatistic()) && !not)||(!statistics.contains(event.getStatistic()) && not)) {
+			final Set<org.bukkit.Statistic> statistics = filters.computeIfAbsent(value, Statistic::compile);
+			if (statistics.contains(event.getStatistic()) != value.startsWith("!")) {
 				final int increment = event.getNewValue() - event.getPreviousValue();
 				progression(increment, path, event.getPlayer().getUniqueId());
 			}
 		}
 	}
+
+	/**
+	 * Parses the comma separated statistics of an advancement value, unknown statistics are logged and ignored
+	 */
+	private static Set<org.bukkit.Statistic> compile(String value) {
+		final String original = value;
+		if (value.startsWith("!")) value = value.substring(1);
+		final Set<org.bukkit.Statistic> statistics = EnumSet.noneOf(org.bukkit.Statistic.class);
+		for (final String statisticString : value.split(",")) {
+			try {
+				statistics.add(org.bukkit.Statistic.valueOf(statisticString.trim().toUpperCase()));
+			} catch (final IllegalArgumentException ex) {
+				CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "Unknown statistic '" + statisticString + "' in value '" + original + "' of a statistic advancement, it will be ignored.");
+			}
+		}
+		return statistics;
+	}
+
+	private static int[] toArray(final List<Integer> indices) {
+		final int[] result = new int[indices.size()];
+		for (int i = 0; i < result.length; i++) result[i] = indices.get(i);
+		return result;
+	}
+
+	/**
+	 * A negated statistic advancement and the statistics it excludes
+	 */
+	private static final class Negation {
+		private final int index;
+		private final Set<org.bukkit.Statistic> statistics;
+
+		private Negation(final int index, final Set<org.bukkit.Statistic> statistics) {
+			this.index = index;
+			this.statistics = statistics;
+		}
+	}
 }
@@ -0,0 +1,47 @@
+package me.tippie.customadvancements.commands;
+
+import lombok.val;
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.util.Lang;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the '/ca debug' command.
+ * This command shows internal counters, like the amount of open GUIs and registered event handlers.
+ */
+public class CommandDebug extends SubCommand {
+
+	CommandDebug() {
+		super("debug", "customadvancements.command.debug", Lang.COMMAND_DEBUG_DESC.getString(), Lang.COMMAND_DEBUG_USAGE.getString(), new ArrayList<>());
+	}
+
+	@Override
+	public List<String> onTabComplete(final CommandSender sender, final Command command, final String alias, final String[] args) {
+		return new ArrayList<>();
+	}
+
+	@Override
+	public void execute(final CommandSender sender, final Command command, final String label, final String[] args) {
+		val guiListener = CustomAdvancements.getGuiListener();
+		val advancementManager = CustomAdvancements.getAdvancementManager();
+		final long listeningTypes = advancementManager.getAdvancementTypes().stream().filter(advancementManager::isListening).count();
+
+		sender.sendMessage(Lang.COMMAND_DEBUG_HEADER.getString());
+		entry(sender, "Open GUIs", guiListener.getOpen());
+		entry(sender, "Created GUIs", guiListener.getCreated());
+		entry(sender, "Dispatched GUI clicks", guiListener.getClicks());
+		entry(sender, "InventoryClickEvent handlers", InventoryClickEvent.getHandlerList().getRegisteredListeners().length);
+		entry(sender, "Plugin event handlers", HandlerList.getRegisteredListeners(CustomAdvancements.getInstance()).size());
+		entry(sender, "Listening advancement types", listeningTypes + "/" + advancementManager.getAdvancementTypes().size());
+	}
+
+	private static void entry(final CommandSender sender, final String name, final Object value) {
+		sender.sendMessage(Lang.COMMAND_DEBUG_ENTRY.getConfigValue(new String[]{name, String.valueOf(value)}, true));
+	}
+}
@@ -37,6 +37,9 @@ public class CommandListener implements CommandExecutor, TabCompleter {
 		subCommands.add(new CommandActivate());
 		subCommands.add(new CommandGUI());
 		subCommands.add(new CommandGrantImpossible());
+		subCommands.add(new CommandDebug());
+		subCommands.add(new CommandStats());
+		subCommands.add(new CommandLoadTest());
 	}
 
 	@Override
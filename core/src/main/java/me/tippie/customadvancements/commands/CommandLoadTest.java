@@ -0,0 +1,124 @@
+package me.tippie.customadvancements.commands;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.util.Lang;
+import me.tippie.customadvancements.util.LoadGenerator;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the '/ca loadtest' command.
+ * This command runs a {@link LoadGenerator} for a while and reports how the plugin handled the load.
+ */
+public class CommandLoadTest extends SubCommand {
+	private static final int MAX_PLAYERS = 10000;
+	private static final int MAX_SECONDS = 3600;
+
+	/**
+	 * Default events per player per second of block breaks, moves, chat messages and crafts
+	 */
+	private static final double[] DEFAULT_RATES = {0.5, 10, 0.05, 0.1};
+
+	private BukkitTask tickTask;
+	private BukkitTask stopTask;
+	private CommandSender starter;
+
+	CommandLoadTest() {
+		super("loadtest", "customadvancements.command.loadtest", Lang.COMMAND_LOADTEST_DESC.getString(), Lang.COMMAND_LOADTEST_USAGE.getString(), new ArrayList<>());
+	}
+
+	@Override
+	public List<String> onTabComplete(final CommandSender sender, final Command command, final String alias, final String[] args) {
+		if (args.length == 2) return new ArrayList<>(Arrays.asList("stop", "status", "100"));
+		if (args.length == 3 && !args[1].equalsIgnoreCase("stop") && !args[1].equalsIgnoreCase("status")) return new ArrayList<>(Arrays.asList("60", "300"));
+		return new ArrayList<>();
+	}
+
+	@Override
+	public void execute(final CommandSender sender, final Command command, final String label, final String[] args) {
+		if (args.length == 2 && args[1].equalsIgnoreCase("stop")) {
+			final LoadGenerator generator = LoadGenerator.getRunning();
+			if (generator == null) {
+				sender.sendMessage(Lang.COMMAND_LOADTEST_NOT_RUNNING.getConfigValue(null));
+				return;
+			}
+			finish(generator, sender);
+		} else if (args.length == 2 && args[1].equalsIgnoreCase("status")) {
+			final LoadGenerator generator = LoadGenerator.getRunning();
+			if (generator == null) {
+				sender.sendMessage(Lang.COMMAND_LOADTEST_NOT_RUNNING.getConfigValue(null));
+				return;
+			}
+			send(sender, generator.report());
+		} else if (args.length >= 3 && args.length <= 7) {
+			if (LoadGenerator.getRunning() != null) {
+				sender.sendMessage(Lang.COMMAND_LOADTEST_RUNNING.getConfigValue(null));
+				return;
+			}
+			final int players;
+			final int seconds;
+			final double[] rates = DEFAULT_RATES.clone();
+			try {
+				players = Integer.parseInt(args[1]);
+				seconds = Integer.parseInt(args[2]);
+				for (int i = 3; i < args.length; i++) rates[i - 3] = Double.parseDouble(args[i]);
+			} catch (final NumberFormatException ex) {
+				sender.sendMessage(Lang.COMMAND_INVALID_USAGE.getConfigValue(new String[]{getUsage()}));
+				return;
+			}
+			if (players < 1 || players > MAX_PLAYERS) {
+				sender.sendMessage(Lang.COMMAND_INVALID_TYPE.getConfigValue(new String[]{args[1], "a number between 1 and " + MAX_PLAYERS}));
+				return;
+			}
+			if (seconds < 1 || seconds > MAX_SECONDS) {
+				sender.sendMessage(Lang.COMMAND_INVALID_TYPE.getConfigValue(new String[]{args[2], "a number between 1 and " + MAX_SECONDS}));
+				return;
+			}
+			for (int i = 0; i < rates.length; i++) {
+				if (rates[i] < 0 || rates[i] > 20 || Double.isNaN(rates[i])) {
+					sender.sendMessage(Lang.COMMAND_INVALID_TYPE.getConfigValue(new String[]{args[i + 3], "a number between 0 and 20"}));
+					return;
+				}
+			}
+
+			final LoadGenerator generator = new LoadGenerator(players, rates[0], rates[1], rates[2], rates[3]);
+			generator.start();
+			starter = sender;
+			tickTask = Bukkit.getScheduler().runTaskTimer(CustomAdvancements.getInstance(), generator::tick, 1L, 1L);
+			stopTask = Bukkit.getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> finish(generator, starter), seconds * 20L);
+			sender.sendMessage(Lang.COMMAND_LOADTEST_STARTED.getConfigValue(new String[]{String.valueOf(players), String.valueOf(seconds)}));
+		} else {
+			sender.sendMessage(Lang.COMMAND_INVALID_USAGE.getConfigValue(new String[]{getUsage()}));
+		}
+	}
+
+	private void finish(final LoadGenerator generator, final CommandSender sender) {
+		if (tickTask != null) tickTask.cancel();
+		if (stopTask != null) stopTask.cancel();
+		tickTask = null;
+		stopTask = null;
+		starter = null;
+		generator.stop().thenAccept(report -> {
+			if (!CustomAdvancements.getInstance().isEnabled()) return;
+			Bukkit.getScheduler().runTask(CustomAdvancements.getInstance(), () -> {
+				send(sender, report);
+				if (!(sender instanceof ConsoleCommandSender)) send(Bukkit.getConsoleSender(), report);
+			});
+		});
+	}
+
+	private static void send(final CommandSender sender, final Map<String, String> report) {
+		sender.sendMessage(Lang.COMMAND_LOADTEST_HEADER.getString());
+		for (final Map.Entry<String, String> entry : report.entrySet()) {
+			sender.sendMessage(Lang.COMMAND_LOADTEST_ENTRY.getConfigValue(new String[]{entry.getKey(), entry.getValue()}, true));
+		}
+	}
+}
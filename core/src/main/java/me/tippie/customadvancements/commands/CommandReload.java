@@ -7,6 +7,7 @@ import org.bukkit.command.CommandSender;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
 
 public class CommandReload extends SubCommand {
 
@@ -21,7 +22,12 @@ public class CommandReload extends SubCommand {
 
 	@Override
 	public void execute(final CommandSender sender, final Command command, final String label, final String[] args) {
-		CustomAdvancements.getInstance().onReload();
-		sender.sendMessage(Lang.COMMAND_RELOAD_RESPONSE.getString(false));
+		CustomAdvancements.getInstance().onReload()
+				.thenAccept(published -> sender.sendMessage(published ? Lang.COMMAND_RELOAD_RESPONSE.getString(false) : Lang.COMMAND_RELOAD_SUPERSEDED.getString(false)))
+				.exceptionally(throwable -> {
+					CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Could not reload the advancement trees!", throwable);
+					sender.sendMessage(Lang.COMMAND_RELOAD_FAILED.getString(false));
+					return null;
+				});
 	}
 }
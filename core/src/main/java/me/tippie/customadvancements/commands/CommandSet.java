@@ -116,6 +116,8 @@ public class CommandSet extends SubCommand {
 				} else {
 					sender.sendMessage(Lang.COMMAND_INVALID_USAGE.getConfigValue(new String[]{getUsage()}));
 				}
+				player.getRequirementCache().invalidateAll();
+				player.getAggregates().invalidate();
 				CustomAdvancements.getCaPlayerManager().savePlayer(player.getUuid());
 			} catch (InvalidAdvancementException e){
 				sender.sendMessage(Lang.COMMAND_INVALID_ADVANCEMENT.getConfigValue(new String[]{}));
@@ -0,0 +1,61 @@
+package me.tippie.customadvancements.commands;
+
+import lombok.val;
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.util.Lang;
+import me.tippie.customadvancements.util.Profiler;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the '/ca stats' command.
+ * This command shows the statistics recorded by the {@link Profiler}.
+ */
+public class CommandStats extends SubCommand {
+
+	CommandStats() {
+		super("stats", "customadvancements.command.stats", Lang.COMMAND_STATS_DESC.getString(), Lang.COMMAND_STATS_USAGE.getString(), new ArrayList<>());
+	}
+
+	@Override
+	public List<String> onTabComplete(final CommandSender sender, final Command command, final String alias, final String[] args) {
+		return new ArrayList<>();
+	}
+
+	@Override
+	public void execute(final CommandSender sender, final Command command, final String label, final String[] args) {
+		val profiler = CustomAdvancements.getProfiler();
+		if (!profiler.isEnabled()) {
+			sender.sendMessage(Lang.COMMAND_STATS_DISABLED.getConfigValue(null));
+			return;
+		}
+
+		sender.sendMessage(Lang.COMMAND_STATS_HEADER.getString());
+		for (final Map.Entry<String, Profiler.TypeStats> entry : profiler.getTypes().entrySet()) {
+			final Profiler.TypeStats stats = entry.getValue();
+			final Profiler.Histogram dispatch = stats.getDispatch();
+			sender.sendMessage(Lang.COMMAND_STATS_TYPE.getConfigValue(new String[]{entry.getKey(), String.valueOf(stats.getEvents()), String.valueOf(stats.getMatched()), String.valueOf(stats.getProgressions()), micros(dispatch.getPercentile(50)), micros(dispatch.getPercentile(99)), micros(dispatch.getMax())}, true));
+		}
+		entry(sender, "Progress updates", profiler.getProgressUpdates());
+		entry(sender, "Progress backlog", CustomAdvancements.getProgressBus().getBacklog());
+		entry(sender, "Bus drain p99", micros(profiler.getDrain().getPercentile(99)) + "µs");
+		entry(sender, "Completions", profiler.getCompletions());
+		entry(sender, "Queued rewards", CustomAdvancements.getCompletionPipeline().getQueuedRewards());
+		entry(sender, "Completion pipeline p99", micros(profiler.getPipeline().getPercentile(99)) + "µs");
+		entry(sender, "Requirement cache hits/misses", profiler.getRequirementCacheHits() + "/" + profiler.getRequirementCacheMisses());
+		entry(sender, "GUI opens", profiler.getGuiOpens());
+		entry(sender, "Advancement packet sends", profiler.getPacketSends());
+	}
+
+	private static String micros(final long nanos) {
+		return String.valueOf(nanos / 1000);
+	}
+
+	private static void entry(final CommandSender sender, final String name, final Object value) {
+		sender.sendMessage(Lang.COMMAND_STATS_ENTRY.getConfigValue(new String[]{name, String.valueOf(value)}, true));
+	}
+}
@@ -38,19 +38,19 @@ public class AdvancementOptionsGUI extends InventoryGUI {
 
 		caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId());
 		int next = 0;
-		final ItemStack backgroundItem = createGuiItem(Material.BLACK_STAINED_GLASS_PANE, " ", null);
+		final ItemStack backgroundItem = GuiItems.get(GuiItems.Template.OPTIONS_BACKGROUND);
 		while (next != -1) {
 			inventory.setItem(next, backgroundItem);
 			next = inventory.firstEmpty();
 		}
 
-		final ItemStack activateItem = (caPlayer.checkIfAdvancementActive(path) || caPlayer.checkIfAdvancementCompleted(path)) ? createGuiItem(Material.GRAY_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_LORE.getString()) : createGuiItem(Material.LIME_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATE_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATE_LORE.getString());
+		final ItemStack activateItem = GuiItems.get((caPlayer.checkIfAdvancementActive(path) || caPlayer.checkIfAdvancementCompleted(path)) ? GuiItems.Template.OPTIONS_ACTIVATED : GuiItems.Template.OPTIONS_ACTIVATE);
 		inventory.setItem(10, activateItem);
 
 		final ItemStack requirementsItem = createGuiItem(Material.BOOK, Lang.GUI_ADVANCEMENT_OPTIONS_REQUIREMENTS_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_REQUIREMENTS_LORE.getConfigValue(new String[]{String.valueOf(advancement.getRequirements(true, player).size()), String.valueOf(advancement.getRequirements().size())}, true));
 		inventory.setItem(11, requirementsItem);
 
-		final ItemStack completedItem = !(caPlayer.checkIfAdvancementCompleted(path)) ? createGuiItem(Material.RED_WOOL, Lang.GUI_ADVANCEMENT_OPTIONS_NOT_COMPLETED_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_NOT_COMPLETED_LORE.getString()) : createGuiItem(Material.GREEN_WOOL, Lang.GUI_ADVANCEMENT_OPTIONS_COMPLETED_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_COMPLETED_LORE.getString());
+		final ItemStack completedItem = GuiItems.get(!(caPlayer.checkIfAdvancementCompleted(path)) ? GuiItems.Template.OPTIONS_NOT_COMPLETED : GuiItems.Template.OPTIONS_COMPLETED);
 		inventory.setItem(28, completedItem);
 
 		val progress = caPlayer.getAdvancementProgress().get(path).getProgress();
@@ -60,7 +60,7 @@ public class AdvancementOptionsGUI extends InventoryGUI {
 		final ItemStack advancementItem = createGuiItem(advancement.getDisplayItem(), advancement.getDisplayName(), advancement.getDescription(player));
 		inventory.setItem(23, advancementItem);
 
-		final ItemStack treeItem = createGuiItem(tree.getOptions().getDisplayItem(), tree.getOptions().getDisplayName(), tree.getOptions().getDescription());
+		final ItemStack treeItem = GuiItems.getPlainTreeIcon(tree);
 		inventory.setItem(25, treeItem);
 		setBack(40);
 		return inventory;
@@ -75,11 +75,11 @@ public class AdvancementOptionsGUI extends InventoryGUI {
 					if (caPlayer.checkIfAdvancementActive(path) || caPlayer.checkIfAdvancementCompleted(path)) break;
 					val result = caPlayer.activateAdvancement(path);
 					if (result == null) {
-						final ItemStack activatedItem = createGuiItem(Material.GREEN_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_SUCCESSFULLY_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_SUCCESSFULLY_LORE.getString());
+						final ItemStack activatedItem = GuiItems.get(GuiItems.Template.OPTIONS_ACTIVATED_SUCCESSFULLY);
 						inventory.setItem(10, activatedItem);
 						CustomAdvancements.getInstance().getServer().getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> {
 							try {
-								final ItemStack activateItem = (caPlayer.checkIfAdvancementActive(path) || caPlayer.checkIfAdvancementCompleted(path)) ? createGuiItem(Material.GRAY_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_LORE.getString()) : createGuiItem(Material.LIME_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATE_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATE_LORE.getString());
+								final ItemStack activateItem = GuiItems.get((caPlayer.checkIfAdvancementActive(path) || caPlayer.checkIfAdvancementCompleted(path)) ? GuiItems.Template.OPTIONS_ACTIVATED : GuiItems.Template.OPTIONS_ACTIVATE);
 								inventory.setItem(10, activateItem);
 							} catch (final InvalidAdvancementException ignored) {
 							}
@@ -90,7 +90,7 @@ public class AdvancementOptionsGUI extends InventoryGUI {
 						inventory.setItem(10, notActivatedItem);
 						CustomAdvancements.getInstance().getServer().getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> {
 							try {
-								final ItemStack activateItem = (caPlayer.checkIfAdvancementActive(path) || caPlayer.checkIfAdvancementCompleted(path)) ? createGuiItem(Material.GRAY_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_LORE.getString()) : createGuiItem(Material.LIME_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATE_NAME.getString(), Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATE_LORE.getString());
+								final ItemStack activateItem = GuiItems.get((caPlayer.checkIfAdvancementActive(path) || caPlayer.checkIfAdvancementCompleted(path)) ? GuiItems.Template.OPTIONS_ACTIVATED : GuiItems.Template.OPTIONS_ACTIVATE);
 								inventory.setItem(10, activateItem);
 							} catch (final InvalidAdvancementException ignored) {
 							}
@@ -5,7 +5,6 @@ import me.tippie.customadvancements.CustomAdvancements;
 import me.tippie.customadvancements.advancement.CAdvancement;
 import me.tippie.customadvancements.advancement.InvalidAdvancementException;
 import me.tippie.customadvancements.util.Lang;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.Inventory;
@@ -14,16 +13,20 @@ import org.bukkit.inventory.ItemStack;
 import java.util.*;
 
 public class AvailableAdvancementsGUI extends InventoryGUI{
-	private final Map<Integer, List<CAdvancement>> items = new HashMap<>();
+	private final List<CAdvancement> advancements;
 	private final Map<Integer, String> pageItems = new HashMap<>();
 	private final int page;
 	private final int maxPage;
 
 	AvailableAdvancementsGUI(final int page, final Player player) {
-		super(27, Lang.GUI_AVAILABLE_TITLE.getConfigValue(new String[]{String.valueOf(page), String.valueOf(getMaxPage(player))}, true));
+		this(page, CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId()).getAggregates().getAvailableAdvancements());
+	}
+
+	private AvailableAdvancementsGUI(final int page, final List<CAdvancement> advancements) {
+		super(27, Lang.GUI_AVAILABLE_TITLE.getConfigValue(new String[]{String.valueOf(page), String.valueOf(getMaxPage(advancements.size()))}, true));
 		this.page = page;
-		this.maxPage = getMaxPage(player);
-		initPages(player);
+		this.maxPage = getMaxPage(advancements.size());
+		this.advancements = advancements;
 	}
 
 	@Override public Inventory getInventory(final Player player, final boolean ignoreHistory) {
@@ -34,18 +37,17 @@ public class AvailableAdvancementsGUI extends InventoryGUI{
 		else
 			replaceLast(guiHistory,string);
 
-		try {
-			if (items.size() == 0) throw new NullPointerException();
-			for (final CAdvancement advancement : items.get(page)) {
+		if (advancements.isEmpty()) {
+			inventory.setItem(4, GuiItems.get(GuiItems.Template.AVAILABLE_NONE));
+		} else {
+			for (final CAdvancement advancement : getPage(advancements, page)) {
 				final int index = inventory.firstEmpty();
-				final ItemStack item;
-				item = createGuiItem(advancement.getDisplayItem(), advancement.getDisplayName(), (advancement.getDescription() != null) ? advancement.getDescription(player) + "\n" + Lang.GUI_ADVANCEMENTS_OPTIONS.getString() : Lang.GUI_ADVANCEMENTS_OPTIONS.getString());
+				final String description = advancement.getDescription(player);
+				final ItemStack item = createGuiItem(advancement.getDisplayItem(), advancement.getDisplayName(), (description != null) ? description + "\n" + Lang.GUI_ADVANCEMENTS_OPTIONS.getString() : Lang.GUI_ADVANCEMENTS_OPTIONS.getString());
 				inventory.setItem(index, item);
 				pageItems.put(index, advancement.getTree() + "." + advancement.getLabel());
 			}
 			setPaging(page, maxPage);
-		} catch (final NullPointerException ignored) {
-			inventory.setItem(4, createGuiItem(Material.BARRIER, Lang.GUI_AVAILABLE_NONE_NAME.getString(), Lang.GUI_AVAILABLE_NONE_LORE.getString()));
 		}
 		setBack(22);
 		return inventory;
@@ -77,25 +79,4 @@ public class AvailableAdvancementsGUI extends InventoryGUI{
 				}
 		}
 	}
-
-	private static int getMaxPage(final Player player) {
-		val max = (int) Math.ceil((double) CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId()).getActiveAdvancements().size() / (double) 18);
-		return (max != 0) ? max : 1;
-	}
-
-	private void initPages(final Player player) {
-		final List<CAdvancement> active = new LinkedList<>(CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId()).getAvailableAdvancements());
-		for (final CAdvancement advancement : active) {
-			boolean found = false;
-			int i = 0;
-			while (!found) {
-				i++;
-				if (Collections.frequency(items.keySet(), i) <= 18) {
-					items.computeIfAbsent(i, k -> new LinkedList<>());
-					items.get(i).add(advancement);
-					found = true;
-				}
-			}
-		}
-	}
 }
@@ -5,7 +5,6 @@ import me.tippie.customadvancements.CustomAdvancements;
 import me.tippie.customadvancements.advancement.CAdvancement;
 import me.tippie.customadvancements.advancement.InvalidAdvancementException;
 import me.tippie.customadvancements.util.Lang;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.Inventory;
@@ -15,16 +14,20 @@ import java.util.*;
 
 public class CompletedAdvancementsGUI extends InventoryGUI {
 
-	private final Map<Integer, List<CAdvancement>> items = new HashMap<>();
+	private final List<CAdvancement> advancements;
 	private final Map<Integer, String> pageItems = new HashMap<>();
 	private final int page;
 	private final int maxPage;
 
 	CompletedAdvancementsGUI(final int page, final Player player) {
-		super(27,  Lang.GUI_COMPLETED_TITLE.getConfigValue(new String[]{String.valueOf(page), String.valueOf(getMaxPage(player))}, true));
+		this(page, CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId()).getAggregates().getCompletedAdvancements());
+	}
+
+	private CompletedAdvancementsGUI(final int page, final List<CAdvancement> advancements) {
+		super(27, Lang.GUI_COMPLETED_TITLE.getConfigValue(new String[]{String.valueOf(page), String.valueOf(getMaxPage(advancements.size()))}, true));
 		this.page = page;
-		this.maxPage = getMaxPage(player);
-		initPages(player);
+		this.maxPage = getMaxPage(advancements.size());
+		this.advancements = advancements;
 	}
 
 	@Override public Inventory getInventory(final Player player, final boolean ignoreHistory){
@@ -35,18 +38,17 @@ public class CompletedAdvancementsGUI extends InventoryGUI {
 		else
 			replaceLast(guiHistory,string);
 
-		try {
-			if (items.size() == 0) throw new NullPointerException();
-			for (final CAdvancement advancement : items.get(page)) {
+		if (advancements.isEmpty()) {
+			inventory.setItem(4, GuiItems.get(GuiItems.Template.COMPLETED_NONE));
+		} else {
+			for (final CAdvancement advancement : getPage(advancements, page)) {
 				final int index = inventory.firstEmpty();
-				final ItemStack item;
-				item = createGuiItem(advancement.getDisplayItem(), advancement.getDisplayName(), (advancement.getDescription() != null) ? advancement.getDescription(player) + "\n" + Lang.GUI_ADVANCEMENTS_OPTIONS.getString() : Lang.GUI_ADVANCEMENTS_OPTIONS.getString());
+				final String description = advancement.getDescription(player);
+				final ItemStack item = createGuiItem(advancement.getDisplayItem(), advancement.getDisplayName(), (description != null) ? description + "\n" + Lang.GUI_ADVANCEMENTS_OPTIONS.getString() : Lang.GUI_ADVANCEMENTS_OPTIONS.getString());
 				inventory.setItem(index, item);
 				pageItems.put(index, advancement.getTree() + "." + advancement.getLabel());
 			}
 			setPaging(page, maxPage);
-		} catch (final NullPointerException ignored) {
-			inventory.setItem(4, createGuiItem(Material.BARRIER, Lang.GUI_COMPLETED_NONE_NAME.getString(), Lang.GUI_COMPLETED_NONE_LORE.getString()));
 		}
 		setBack(22);
 		return inventory;
@@ -78,25 +80,4 @@ public class CompletedAdvancementsGUI extends InventoryGUI {
 				}
 		}
 	}
-
-	private static int getMaxPage(final Player player) {
-		val max = (int) Math.ceil((double) CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId()).getCompletedAdvancements().size() / (double) 18);
-		return (max != 0) ? max : 1;
-	}
-
-	private void initPages(final Player player) {
-		final List<CAdvancement> completed = new LinkedList<>(CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId()).getCompletedAdvancements());
-		for (final CAdvancement advancement : completed) {
-			boolean found = false;
-			int i = 0;
-			while (!found) {
-				i++;
-				if (Collections.frequency(items.keySet(), i) <= 18) {
-					items.computeIfAbsent(i, k -> new LinkedList<>());
-					items.get(i).add(advancement);
-					found = true;
-				}
-			}
-		}
-	}
 }
@@ -0,0 +1,165 @@
+package me.tippie.customadvancements.guis;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.AdvancementTree;
+import me.tippie.customadvancements.util.Lang;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.*;
+
+/**
+ * Prebuilt items shared by all GUIs. The items that do not depend on a player are built once per (re)load from the
+ * messages and the advancement trees, GUIs only render the player specific slots themselves.
+ * Inventories copy items that are put into them, so the templates can be passed to {@link org.bukkit.inventory.Inventory#setItem(int, ItemStack)} directly.
+ */
+public final class GuiItems {
+
+	/**
+	 * The static items of the GUIs
+	 */
+	public enum Template {
+		BACK(Material.DARK_OAK_DOOR, Lang.GUI_BACK_BUTTON_NAME, Lang.GUI_BACK_BUTTON_LORE),
+		PAGE_PREVIOUS(Material.GREEN_STAINED_GLASS_PANE, Lang.GUI_PAGE_PREVIOUS_NAME, Lang.GUI_PAGE_PREVIOUS_LORE),
+		PAGE_FIRST(Material.GRAY_STAINED_GLASS_PANE, Lang.GUI_PAGE_FIRST_NAME, Lang.GUI_PAGE_FIRST_LORE),
+		PAGE_NEXT(Material.GREEN_STAINED_GLASS_PANE, Lang.GUI_PAGE_NEXT_NAME, Lang.GUI_PAGE_NEXT_LORE),
+		PAGE_LAST(Material.GRAY_STAINED_GLASS_PANE, Lang.GUI_PAGE_LAST_NAME, Lang.GUI_PAGE_LAST_LORE),
+		MAIN_TREES(Material.OAK_SAPLING, Lang.GUI_MAIN_TREES_NAME, Lang.GUI_MAIN_TREES_LORE),
+		MAIN_ACTIVE(Material.ENCHANTED_BOOK, Lang.GUI_MAIN_ACTIVE_NAME, Lang.GUI_MAIN_ACTIVE_LORE),
+		MAIN_COMPLETED(Material.GREEN_WOOL, Lang.GUI_MAIN_COMPLETED_NAME, Lang.GUI_MAIN_COMPLETED_LORE),
+		MAIN_AVAILABLE(Material.GREEN_STAINED_GLASS, Lang.GUI_MAIN_AVAILABLE_NAME, Lang.GUI_MAIN_AVAILABLE_LORE),
+		ACTIVE_NONE(Material.BARRIER, Lang.GUI_ACTIVE_NONE_NAME, Lang.GUI_ACTIVE_NONE_LORE),
+		COMPLETED_NONE(Material.BARRIER, Lang.GUI_COMPLETED_NONE_NAME, Lang.GUI_COMPLETED_NONE_LORE),
+		AVAILABLE_NONE(Material.BARRIER, Lang.GUI_AVAILABLE_NONE_NAME, Lang.GUI_AVAILABLE_NONE_LORE),
+		REQUIREMENTS_NONE(Material.BARRIER, Lang.GUI_REQUIREMENTS_NO_REQUIREMENTS_NAME, Lang.GUI_REQUIREMENTS_NO_REQUIREMENTS_LORE),
+		OPTIONS_BACKGROUND(Material.BLACK_STAINED_GLASS_PANE, null, null),
+		OPTIONS_ACTIVATE(Material.LIME_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATE_NAME, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATE_LORE),
+		OPTIONS_ACTIVATED(Material.GRAY_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_NAME, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_LORE),
+		OPTIONS_ACTIVATED_SUCCESSFULLY(Material.GREEN_STAINED_GLASS_PANE, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_SUCCESSFULLY_NAME, Lang.GUI_ADVANCEMENT_OPTIONS_ACTIVATED_SUCCESSFULLY_LORE),
+		OPTIONS_COMPLETED(Material.GREEN_WOOL, Lang.GUI_ADVANCEMENT_OPTIONS_COMPLETED_NAME, Lang.GUI_ADVANCEMENT_OPTIONS_COMPLETED_LORE),
+		OPTIONS_NOT_COMPLETED(Material.RED_WOOL, Lang.GUI_ADVANCEMENT_OPTIONS_NOT_COMPLETED_NAME, Lang.GUI_ADVANCEMENT_OPTIONS_NOT_COMPLETED_LORE);
+
+		private final Material material;
+		private final Lang name;
+		private final Lang lore;
+
+		Template(final Material material, final Lang name, final Lang lore) {
+			this.material = material;
+			this.name = name;
+			this.lore = lore;
+		}
+	}
+
+	private static Map<Template, ItemStack> templates = Collections.emptyMap();
+
+	/**
+	 * Map with key a tree label and value its icon in the trees GUI
+	 */
+	private static Map<String, ItemStack> treeIcons = Collections.emptyMap();
+
+	/**
+	 * Map with key a tree label and value its icon when it is placed automatically in the trees GUI
+	 */
+	private static Map<String, ItemStack> autoTreeIcons = Collections.emptyMap();
+
+	/**
+	 * Map with key a tree label and value its icon without click hint, as shown in the advancement options GUI
+	 */
+	private static Map<String, ItemStack> plainTreeIcons = Collections.emptyMap();
+
+	private GuiItems() {
+	}
+
+	/**
+	 * Rebuilds all templates from the current messages and advancement trees, MAKE SURE THIS IS CALLED SYNC!!
+	 */
+	public static void rebuild() {
+		final Map<Template, ItemStack> templates = new EnumMap<>(Template.class);
+		for (final Template template : Template.values()) {
+			templates.put(template, create(new ItemStack(template.material, 1), template.name == null ? " " : template.name.getString(), template.lore == null ? null : template.lore.getString()));
+		}
+
+		final Map<String, ItemStack> treeIcons = new HashMap<>();
+		final Map<String, ItemStack> autoTreeIcons = new HashMap<>();
+		final Map<String, ItemStack> plainTreeIcons = new HashMap<>();
+		for (final AdvancementTree tree : CustomAdvancements.getAdvancementManager().getAdvancementTrees()) {
+			final String description = tree.getOptions().getDescription();
+			treeIcons.put(tree.getLabel(), create(tree.getOptions().getDisplayItem(), tree.getOptions().getDisplayName(), (description != null) ? description + "\n" + Lang.GUI_TREES_ADVANCEMENTS.getString() : Lang.GUI_TREES_ADVANCEMENTS.getString()));
+			autoTreeIcons.put(tree.getLabel(), create(tree.getOptions().getDisplayItem(), tree.getOptions().getDisplayName(), (description != null) ? description + "\n" + Lang.GUI_ADVANCEMENTS_OPTIONS.getString() : Lang.GUI_ADVANCEMENTS_OPTIONS.getString()));
+			plainTreeIcons.put(tree.getLabel(), create(tree.getOptions().getDisplayItem(), tree.getOptions().getDisplayName(), description));
+		}
+
+		GuiItems.templates = templates;
+		GuiItems.treeIcons = treeIcons;
+		GuiItems.autoTreeIcons = autoTreeIcons;
+		GuiItems.plainTreeIcons = plainTreeIcons;
+	}
+
+	/**
+	 * Gets a prebuilt static item
+	 *
+	 * @param template the item
+	 * @return the shared template, do not modify it
+	 */
+	public static ItemStack get(final Template template) {
+		if (templates.isEmpty()) rebuild();
+		return templates.get(template);
+	}
+
+	/**
+	 * Gets the prebuilt icon of a tree
+	 *
+	 * @param tree the tree
+	 * @param auto true if the tree is placed automatically in the trees GUI
+	 * @return the shared icon, do not modify it
+	 */
+	public static ItemStack getTreeIcon(final AdvancementTree tree, final boolean auto) {
+		final ItemStack icon = (auto ? autoTreeIcons : treeIcons).get(tree.getLabel());
+		if (icon != null) return icon;
+		final String description = tree.getOptions().getDescription();
+		final String hint = auto ? Lang.GUI_ADVANCEMENTS_OPTIONS.getString() : Lang.GUI_TREES_ADVANCEMENTS.getString();
+		return create(tree.getOptions().getDisplayItem(), tree.getOptions().getDisplayName(), (description != null) ? description + "\n" + hint : hint);
+	}
+
+	/**
+	 * Gets the prebuilt icon of a tree without a click hint
+	 *
+	 * @param tree the tree
+	 * @return the shared icon, do not modify it
+	 */
+	public static ItemStack getPlainTreeIcon(final AdvancementTree tree) {
+		final ItemStack icon = plainTreeIcons.get(tree.getLabel());
+		return icon != null ? icon : create(tree.getOptions().getDisplayItem(), tree.getOptions().getDisplayName(), tree.getOptions().getDescription());
+	}
+
+	/**
+	 * Creates a GUI item with a white name and gray lore
+	 *
+	 * @param itemIn the item that should be copied
+	 * @param name   the name of the item
+	 * @param lore   the lore of the item, lines are separated by '\n', or null for no lore
+	 * @return a new item
+	 */
+	static ItemStack create(final ItemStack itemIn, final String name, final String lore) {
+		final ItemStack item = itemIn.clone();
+		final ItemMeta meta = item.getItemMeta();
+
+		// Set the name of the item
+		assert meta != null;
+		meta.setDisplayName(ChatColor.WHITE + name);
+
+		// Set the lore of the item
+		if (lore != null) {
+			final String[] lines = lore.split("\n");
+			final List<String> loreLines = new ArrayList<>(lines.length);
+			for (final String line : lines) loreLines.add(ChatColor.GRAY + line);
+			meta.setLore(loreLines);
+		}
+
+		item.setItemMeta(meta);
+
+		return item;
+	}
+}
@@ -0,0 +1,58 @@
+package me.tippie.customadvancements.guis;
+
+import lombok.Getter;
+import me.tippie.customadvancements.CustomAdvancements;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+
+/**
+ * The single listener of all {@link InventoryGUI}s, registered once on enable.
+ * Every GUI is the {@link org.bukkit.inventory.InventoryHolder} of its own inventory, so the GUI an event belongs to is
+ * found through the holder of the inventory. GUIs that are created but never shown are not referenced from anywhere.
+ */
+public class GuiListener implements Listener {
+
+	/**
+	 * The amount of GUIs created since the plugin was enabled
+	 */
+	@Getter private long created = 0;
+
+	/**
+	 * The amount of GUIs that are currently opened by a player
+	 */
+	@Getter private int open = 0;
+
+	/**
+	 * The amount of clicks dispatched to a GUI since the plugin was enabled
+	 */
+	@Getter private long clicks = 0;
+
+	void created() {
+		created++;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onInventoryOpen(final InventoryOpenEvent event) {
+		if (!(event.getInventory().getHolder() instanceof InventoryGUI)) return;
+		open++;
+		CustomAdvancements.getProfiler().recordGuiOpen();
+	}
+
+	@EventHandler
+	public void onInventoryClick(final InventoryClickEvent event) {
+		if (!(event.getInventory().getHolder() instanceof InventoryGUI)) return;
+		clicks++;
+		((InventoryGUI) event.getInventory().getHolder()).handleClick(event);
+	}
+
+	@EventHandler
+	public void onInventoryClose(final InventoryCloseEvent event) {
+		if (!(event.getInventory().getHolder() instanceof InventoryGUI)) return;
+		open = Math.max(0, open - 1);
+		((InventoryGUI) event.getInventory().getHolder()).handleClose(event);
+	}
+}
@@ -4,34 +4,38 @@ import lombok.val;
 import lombok.var;
 import me.tippie.customadvancements.CustomAdvancements;
 import me.tippie.customadvancements.advancement.InvalidAdvancementException;
-import me.tippie.customadvancements.util.Lang;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.Level;
 
-public abstract class InventoryGUI implements Listener {
+public abstract class InventoryGUI implements InventoryHolder {
+
+	/**
+	 * Amount of items shown on a single page of a paginated GUI
+	 */
+	protected static final int PAGE_SIZE = 18;
 
 	protected final Inventory inventory;
 	private int backSlot = -1;
 
 	InventoryGUI(final int size, final String name) {
-		inventory = Bukkit.createInventory(null, size, name);
-		CustomAdvancements.getInstance().getServer().getPluginManager().registerEvents(this, CustomAdvancements.getInstance());
+		inventory = Bukkit.createInventory(this, size, name);
+		CustomAdvancements.getGuiListener().created();
+	}
+
+	@Override public Inventory getInventory() {
+		return inventory;
 	}
 
 	public Inventory getInventory(final Player player) throws InvalidAdvancementException {
@@ -44,78 +48,80 @@ public abstract class InventoryGUI implements Listener {
 
 
 	protected ItemStack createGuiItem(final Material material, final String name, final String lore) {
-		final ItemStack item = new ItemStack(material, 1);
-		return createGuiItem(item, name, lore);
+		return GuiItems.create(new ItemStack(material, 1), name, lore);
 	}
 
 	protected ItemStack createGuiItem(final ItemStack itemIn, final String name, final String lore) {
-		final ItemStack item = itemIn.clone();
-		final ItemMeta meta = item.getItemMeta();
-
-		// Set the name of the item
-		assert meta != null;
-		meta.setDisplayName(ChatColor.WHITE + name);
-
-		// Set the lore of the item
-		if (lore != null) {
-			final List<String> loreLines = new LinkedList<>();
-			Arrays.asList(lore.split("\n")).forEach(line -> loreLines.add(ChatColor.GRAY + line));
-			meta.setLore(loreLines);
-		}
-
-		item.setItemMeta(meta);
-
-		return item;
+		return GuiItems.create(itemIn, name, lore);
 	}
 
 	protected void setBack(final int slot) {
 		backSlot = slot;
-		val backItem = createGuiItem(Material.DARK_OAK_DOOR, Lang.GUI_BACK_BUTTON_NAME.getString(), Lang.GUI_BACK_BUTTON_LORE.getString());
-		inventory.setItem(slot, backItem);
+		inventory.setItem(slot, GuiItems.get(GuiItems.Template.BACK));
 	}
 
 	protected void setPaging(final int page, final int maxPage) {
 		if (maxPage != 1) {
-			val backItem = !(page == 1) ? createGuiItem(Material.GREEN_STAINED_GLASS_PANE, Lang.GUI_PAGE_PREVIOUS_NAME.getString(), Lang.GUI_PAGE_PREVIOUS_LORE.getString()) : createGuiItem(Material.GRAY_STAINED_GLASS_PANE, Lang.GUI_PAGE_FIRST_NAME.getString(), Lang.GUI_PAGE_FIRST_LORE.getString());
-			val nextItem = !(page == maxPage) ? createGuiItem(Material.GREEN_STAINED_GLASS_PANE, Lang.GUI_PAGE_NEXT_NAME.getString(), Lang.GUI_PAGE_NEXT_LORE.getString()) : createGuiItem(Material.GRAY_STAINED_GLASS_PANE, Lang.GUI_PAGE_LAST_NAME.getString(), Lang.GUI_PAGE_LAST_LORE.getString());
-			inventory.setItem(18, backItem);
-			inventory.setItem(26, nextItem);
+			inventory.setItem(18, GuiItems.get(page != 1 ? GuiItems.Template.PAGE_PREVIOUS : GuiItems.Template.PAGE_FIRST));
+			inventory.setItem(26, GuiItems.get(page != maxPage ? GuiItems.Template.PAGE_NEXT : GuiItems.Template.PAGE_LAST));
 		}
 	}
 
-	@EventHandler
-	public void onInventoryClick(final InventoryClickEvent event) {
-		if (event.getInventory().equals(inventory)) {
-			event.setCancelled(true);
-			val history = CustomAdvancements.getCaPlayerManager().getPlayer(event.getWhoClicked().getUniqueId()).getGuiHistory();
-			if (history.size() > 30) {
-				history.subList(0, history.size() - 5).clear();
-			}
-			if (event.getRawSlot() == backSlot) {
-				if (history.size() == 0) {
-					openInventoryByString("main", (Player) event.getWhoClicked());
-					return;
-				}
-				var index = history.size() - 2;
-				if (index < 0) index = 0;
-				if (history.get(index) == null) return;
-				openInventoryByString(history.get(index), (Player) event.getWhoClicked());
-				history.remove(index);
+	/**
+	 * Gets the amount of pages needed to show a list of items, at least 1
+	 *
+	 * @param size the amount of items
+	 * @return the amount of pages
+	 */
+	protected static int getMaxPage(final int size) {
+		return Math.max(1, (size + PAGE_SIZE - 1) / PAGE_SIZE);
+	}
+
+	/**
+	 * Gets the items that are shown on a page
+	 *
+	 * @param items all items in the order they should be shown
+	 * @param page  the page, starting at 1
+	 * @return a view of the items on the page, empty if the page does not exist
+	 */
+	protected static <T> List<T> getPage(final List<T> items, final int page) {
+		final int from = (page - 1) * PAGE_SIZE;
+		if (page < 1 || from >= items.size()) return Collections.emptyList();
+		return items.subList(from, Math.min(from + PAGE_SIZE, items.size()));
+	}
+
+	/**
+	 * Handles a click in the inventory of this GUI, called by the {@link GuiListener}
+	 */
+	void handleClick(final InventoryClickEvent event) {
+		event.setCancelled(true);
+		val history = CustomAdvancements.getCaPlayerManager().getPlayer(event.getWhoClicked().getUniqueId()).getGuiHistory();
+		if (history.size() > 30) {
+			history.subList(0, history.size() - 5).clear();
+		}
+		if (event.getRawSlot() == backSlot) {
+			if (history.size() == 0) {
+				openInventoryByString("main", (Player) event.getWhoClicked());
 				return;
 			}
-			onClick(event);
+			var index = history.size() - 2;
+			if (index < 0) index = 0;
+			if (history.get(index) == null) return;
+			openInventoryByString(history.get(index), (Player) event.getWhoClicked());
+			history.remove(index);
+			return;
 		}
+		onClick(event);
 	}
 
-	@EventHandler(ignoreCancelled = true)
-	public void onClose(final InventoryCloseEvent event) {
-		if (event.getInventory().equals(inventory)) {
-			HandlerList.unregisterAll(this);
-			Bukkit.getScheduler().scheduleSyncDelayedTask(CustomAdvancements.getInstance(), () -> {
-				if (event.getPlayer().getOpenInventory().getType() != InventoryType.CHEST)
-					CustomAdvancements.getCaPlayerManager().getPlayer(event.getPlayer().getUniqueId()).getGuiHistory().clear();
-			}, 1L);
-		}
+	/**
+	 * Handles closing the inventory of this GUI, called by the {@link GuiListener}
+	 */
+	void handleClose(final InventoryCloseEvent event) {
+		Bukkit.getScheduler().scheduleSyncDelayedTask(CustomAdvancements.getInstance(), () -> {
+			if (event.getPlayer().getOpenInventory().getType() != InventoryType.CHEST)
+				CustomAdvancements.getCaPlayerManager().getPlayer(event.getPlayer().getUniqueId()).getGuiHistory().clear();
+		}, 1L);
 	}
 
 	public static void openInventoryByString(final String string, final Player player) {
@@ -4,11 +4,9 @@ import lombok.val;
 import me.tippie.customadvancements.CustomAdvancements;
 import me.tippie.customadvancements.advancement.InvalidAdvancementException;
 import me.tippie.customadvancements.util.Lang;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.ItemStack;
 
 public class MainGUI extends InventoryGUI {
 
@@ -24,17 +22,10 @@ public class MainGUI extends InventoryGUI {
 		else
 			replaceLast(guiHistory,string);
 
-		final ItemStack advancementTreeItem = createGuiItem(Material.OAK_SAPLING, Lang.GUI_MAIN_TREES_NAME.getString(), Lang.GUI_MAIN_TREES_LORE.getString());
-		inventory.setItem(10, advancementTreeItem);
-
-		final ItemStack activeAdvancementsItem = createGuiItem(Material.ENCHANTED_BOOK, Lang.GUI_MAIN_ACTIVE_NAME.getString(), Lang.GUI_MAIN_ACTIVE_LORE.getString());
-		inventory.setItem(12,activeAdvancementsItem);
-
-		final ItemStack completedAdvancementsItem = createGuiItem(Material.GREEN_WOOL, Lang.GUI_MAIN_COMPLETED_NAME.getString(), Lang.GUI_MAIN_COMPLETED_LORE.getString());
-		inventory.setItem(14,completedAdvancementsItem);
-
-		final ItemStack availableAdvancementsItem = createGuiItem(Material.GREEN_STAINED_GLASS, Lang.GUI_MAIN_AVAILABLE_NAME.getString(), Lang.GUI_MAIN_AVAILABLE_LORE.getString());
-		inventory.setItem(16,availableAdvancementsItem);
+		inventory.setItem(10, GuiItems.get(GuiItems.Template.MAIN_TREES));
+		inventory.setItem(12, GuiItems.get(GuiItems.Template.MAIN_ACTIVE));
+		inventory.setItem(14, GuiItems.get(GuiItems.Template.MAIN_COMPLETED));
+		inventory.setItem(16, GuiItems.get(GuiItems.Template.MAIN_AVAILABLE));
 		return inventory;
 	}
 
@@ -7,7 +7,6 @@ import me.tippie.customadvancements.advancement.InvalidAdvancementException;
 import me.tippie.customadvancements.advancement.requirement.AdvancementRequirement;
 import me.tippie.customadvancements.util.Lang;
 import org.bukkit.ChatColor;
-import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
@@ -21,18 +20,23 @@ import java.util.*;
 public class RequirementsGUI extends InventoryGUI {
 
 	private final CAdvancement advancement;
-	private final Map<Integer, List<AdvancementRequirement>> items = new HashMap<>();
+	private final List<AdvancementRequirement> requirements;
 	private final String path;
 	private final int page;
 	private final int maxPage;
 
 	RequirementsGUI(final String path, final int page, final Player player) throws InvalidAdvancementException {
-		super(27, Lang.GUI_REQUIREMENTS_TITLE.getConfigValue(new String[]{CustomAdvancements.getAdvancementManager().getAdvancement(path).getLabel(), String.valueOf(page), String.valueOf(getMaxPage(path))}, true));
-		this.advancement = CustomAdvancements.getAdvancementManager().getAdvancement(path);
+		this(CustomAdvancements.getAdvancementManager().getAdvancement(path), path, page, player);
+	}
+
+	private RequirementsGUI(final CAdvancement advancement, final String path, final int page, final Player player) {
+		super(27, Lang.GUI_REQUIREMENTS_TITLE.getConfigValue(new String[]{advancement.getLabel(), String.valueOf(page), String.valueOf(getMaxPage(advancement.getRequirements().size()))}, true));
+		this.advancement = advancement;
 		this.page = page;
 		this.path = path;
-		this.maxPage = getMaxPage(path);
-		initPages(player);
+		this.maxPage = getMaxPage(advancement.getRequirements().size());
+		this.requirements = new ArrayList<>(advancement.getRequirements(false, player));
+		this.requirements.addAll(advancement.getRequirements(true, player));
 	}
 
 	@Override public Inventory getInventory(final Player player, final boolean ignoreHistory) {
@@ -43,9 +47,10 @@ public class RequirementsGUI extends InventoryGUI {
 		else
 			replaceLast(guiHistory,string);
 
-		try {
-			if (items.size() == 0) throw new NullPointerException();
-			for (final AdvancementRequirement requirement : items.get(page)) {
+		if (requirements.isEmpty()) {
+			inventory.setItem(4, GuiItems.get(GuiItems.Template.REQUIREMENTS_NONE));
+		} else {
+			for (final AdvancementRequirement requirement : getPage(requirements, page)) {
 				final int index = inventory.firstEmpty();
 				final ItemStack item;
 				if (requirement.isMet(player)) {
@@ -59,10 +64,8 @@ public class RequirementsGUI extends InventoryGUI {
 					item = createGuiItem(requirement.getDisplayItem(), ChatColor.DARK_RED + requirement.getName(), ChatColor.RED + requirement.getMessage(player));
 				}
 				inventory.setItem(index, item);
-				setPaging(page, maxPage);
 			}
-		} catch (final NullPointerException ignored) {
-			inventory.setItem(4, createGuiItem(Material.BARRIER, Lang.GUI_REQUIREMENTS_NO_REQUIREMENTS_NAME.getString(), Lang.GUI_REQUIREMENTS_NO_REQUIREMENTS_LORE.getString()));
+			setPaging(page, maxPage);
 		}
 		setBack(22);
 		return inventory;
@@ -87,38 +90,4 @@ public class RequirementsGUI extends InventoryGUI {
 
 		}
 	}
-
-	private static int getMaxPage(final String path) throws InvalidAdvancementException {
-		val max = (int) Math.ceil((double) CustomAdvancements.getAdvancementManager().getAdvancement(path).getRequirements().size() / 18D);
-		return (max != 0) ? max : 1;
-	}
-
-	private void initPages(final Player player) {
-		final List<AdvancementRequirement> notCompleted = new LinkedList<>(advancement.getRequirements(false, player));
-		final List<AdvancementRequirement> completed = new LinkedList<>(advancement.getRequirements(true, player));
-		for (final AdvancementRequirement requirement : notCompleted) {
-			boolean found = false;
-			int i = 0;
-			while (!found) {
-				i++;
-				if (Collections.frequency(items.keySet(), i) <= 18) {
-					items.computeIfAbsent(i, k -> new LinkedList<>());
-					items.get(i).add(requirement);
-					found = true;
-				}
-			}
-		}
-		for (final AdvancementRequirement requirement : completed) {
-			boolean found = false;
-			int i = 0;
-			while (!found) {
-				i++;
-				if (Collections.frequency(items.keySet(), i) <= 18) {
-					items.computeIfAbsent(i, k -> new LinkedList<>());
-					items.get(i).add(requirement);
-					found = true;
-				}
-			}
-		}
-	}
 }
@@ -0,0 +1,155 @@
+package me.tippie.customadvancements.player;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.AdvancementTree;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.advancement.InvalidAdvancementException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cached amounts of active and available advancements per tree for a single {@link CAPlayer}, together with the lists of
+ * active, available and completed advancements shown in the GUIs. Available advancements depend on requirements,
+ * so everything is computed together in one pass when requested and kept until the player makes progress, completes or
+ * activates an advancement, or the requirement cache time to live passes. Completed amounts are kept by {@link CompletionCounters}.
+ */
+public class AdvancementAggregates {
+	private final CAPlayer player;
+	private volatile Snapshot snapshot;
+
+	AdvancementAggregates(final CAPlayer player) {
+		this.player = player;
+	}
+
+	/**
+	 * Gets the amount of active advancements in a tree, including advancements that are active because the tree activates them automatically
+	 *
+	 * @param tree the index of the tree
+	 * @return the amount of active advancements
+	 */
+	public int getActive(final int tree) {
+		final Snapshot snapshot = snapshot();
+		return tree < 0 || tree >= snapshot.active.length ? 0 : snapshot.active[tree];
+	}
+
+	/**
+	 * Gets the amount of active advancements in all trees
+	 *
+	 * @return the amount of active advancements
+	 */
+	public int getActive() {
+		return snapshot().totalActive;
+	}
+
+	/**
+	 * Gets the amount of advancements in a tree that meet their requirements and are neither active nor completed
+	 *
+	 * @param tree the index of the tree
+	 * @return the amount of available advancements
+	 */
+	public int getAvailable(final int tree) {
+		final Snapshot snapshot = snapshot();
+		return tree < 0 || tree >= snapshot.available.length ? 0 : snapshot.available[tree];
+	}
+
+	/**
+	 * Gets the amount of available advancements in all trees
+	 *
+	 * @return the amount of available advancements
+	 */
+	public int getAvailable() {
+		return snapshot().totalAvailable;
+	}
+
+	/**
+	 * Gets all active advancements in tree order, the same list is shared until the cache is invalidated
+	 *
+	 * @return an unmodifiable list of the active advancements
+	 */
+	public List<CAdvancement> getActiveAdvancements() {
+		return snapshot().activeAdvancements;
+	}
+
+	/**
+	 * Gets all advancements that can be activated in tree order, the same list is shared until the cache is invalidated
+	 *
+	 * @return an unmodifiable list of the available advancements
+	 */
+	public List<CAdvancement> getAvailableAdvancements() {
+		return snapshot().availableAdvancements;
+	}
+
+	/**
+	 * Gets all completed advancements in tree order, the same list is shared until the cache is invalidated
+	 *
+	 * @return an unmodifiable list of the completed advancements
+	 */
+	public List<CAdvancement> getCompletedAdvancements() {
+		return snapshot().completedAdvancements;
+	}
+
+	/**
+	 * Drops the cached amounts, they are computed again the next time they are requested
+	 */
+	public void invalidate() {
+		snapshot = null;
+	}
+
+	private Snapshot snapshot() {
+		final Snapshot current = snapshot;
+		if (current != null && current.expiresAt > System.currentTimeMillis()) return current;
+		final Snapshot computed = compute();
+		snapshot = computed;
+		return computed;
+	}
+
+	private Snapshot compute() {
+		final int trees = CustomAdvancements.getAdvancementManager().getAdvancementTreeCount();
+		final Snapshot result = new Snapshot(trees, System.currentTimeMillis() + RequirementCache.getTimeToLive());
+		final List<CAdvancement> active = new ArrayList<>();
+		final List<CAdvancement> available = new ArrayList<>();
+		final List<CAdvancement> completed = new ArrayList<>();
+		for (final AdvancementTree tree : CustomAdvancements.getAdvancementManager().getAdvancementTrees()) {
+			if (tree.getIndex() < 0 || tree.getIndex() >= trees) continue;
+			for (final CAdvancement advancement : tree.getAdvancements()) {
+				try {
+					final boolean isCompleted = player.checkIfAdvancementCompleted(advancement.getPath());
+					if (isCompleted) completed.add(advancement);
+					if (player.checkIfAdvancementActive(advancement.getPath())) {
+						result.active[tree.getIndex()]++;
+						result.totalActive++;
+						active.add(advancement);
+					} else if (!isCompleted && player.meetRequirements(advancement)) {
+						result.available[tree.getIndex()]++;
+						result.totalAvailable++;
+						available.add(advancement);
+					}
+				} catch (final InvalidAdvancementException ignored) {
+				}
+			}
+		}
+		result.activeAdvancements = Collections.unmodifiableList(active);
+		result.availableAdvancements = Collections.unmodifiableList(available);
+		result.completedAdvancements = Collections.unmodifiableList(completed);
+		return result;
+	}
+
+	private static final class Snapshot {
+		private final int[] active;
+		private final int[] available;
+		private final long expiresAt;
+		private int totalActive = 0;
+		private int totalAvailable = 0;
+		private List<CAdvancement> activeAdvancements;
+		private List<CAdvancement> availableAdvancements;
+		private List<CAdvancement> completedAdvancements;
+
+		private Snapshot(final int trees, final long expiresAt) {
+			this.active = new int[trees];
+			this.available = new int[trees];
+			this.expiresAt = expiresAt;
+		}
+	}
+}
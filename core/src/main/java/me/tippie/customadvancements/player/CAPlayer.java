@@ -5,6 +5,8 @@ import lombok.SneakyThrows;
 import lombok.val;
 import me.tippie.customadvancements.CustomAdvancements;
 import me.tippie.customadvancements.InternalsProvider;
+import me.tippie.customadvancements.advancement.AdvancementDependencyGraph;
+import me.tippie.customadvancements.advancement.AdvancementRegistrySnapshot;
 import me.tippie.customadvancements.advancement.AdvancementTree;
 import me.tippie.customadvancements.advancement.CAdvancement;
 import me.tippie.customadvancements.advancement.InvalidAdvancementException;
@@ -27,6 +29,11 @@ import java.util.logging.Level;
  * Represents a player
  */
 public class CAPlayer {
+	/**
+	 * Guards the shared pending rewards file, which is written by every player and by {@link ProgressService}
+	 */
+	private static final Object PENDING_REWARDS_LOCK = new Object();
+
 	/**
 	 * The UUID of this player.
 	 */
@@ -52,15 +59,44 @@ public class CAPlayer {
 	 */
 	@Getter private final LinkedList<String> guiHistory = new LinkedList<>();
 
+	/**
+	 * Cached requirement results of this player
+	 */
+	@Getter private final RequirementCache requirementCache = new RequirementCache();
+
+	/**
+	 * Counters of the completed and active advancements of this player per tree
+	 */
+	@Getter private final CompletionCounters completionCounters;
+
+	/**
+	 * The generation of the {@link me.tippie.customadvancements.advancement.AdvancementRegistrySnapshot} this player was loaded with
+	 */
+	@Getter private final long generation;
+
+	/**
+	 * Cached amounts of active and available advancements of this player per tree
+	 */
+	@Getter private final AdvancementAggregates aggregates = new AdvancementAggregates(this);
+
 	/**
 	 * Creates a new {@link CAPlayer} and loads their progress.
 	 *
 	 * @param playeruuid the UUID of the player
 	 */
 	CAPlayer(final UUID playeruuid) {
+		final AdvancementRegistrySnapshot snapshot = CustomAdvancements.getAdvancementManager().getSnapshot();
+		generation = snapshot.getGeneration();
 		advancementProgressFile = new AdvancementProgressFile(playeruuid);
 		advancementProgress = advancementProgressFile.loadFile();
 		uuid = playeruuid;
+		completionCounters = new CompletionCounters(snapshot.getAdvancementTrees().size());
+		for (final AdvancementTree tree : snapshot.getAdvancementTrees()) {
+			for (final CAdvancement advancement : tree.getAdvancements()) {
+				val progress = advancementProgress.get(advancement.getPath());
+				if (progress != null) progress.attach(completionCounters, tree.getIndex());
+			}
+		}
 		loadPendingRewards();
 	}
 
@@ -88,13 +124,13 @@ public class CAPlayer {
 		CAdvancement advancement = CustomAdvancements.getAdvancementManager().getAdvancement(path);
 		if (advancement.isHidden()) return null;
 		Player player = Bukkit.getPlayer(uuid);
-		if (player != null)
-			return CustomAdvancements.getInternals().updateAdvancementAndChildren(player, advancement)
-					.exceptionally(e -> {
-						CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Could not update advancement " + path + " for " + player.getName() + "!", e);
-						return null;
-					});
-		return null;
+		if (player == null) return null;
+		CustomAdvancements.getProfiler().recordPacketSend();
+		return CustomAdvancements.getInternals().updateAdvancementAndChildren(player, advancement)
+				.exceptionally(e -> {
+					CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Could not update advancement " + path + " for " + player.getName() + "!", e);
+					return null;
+				});
 	}
 
 	/**
@@ -105,6 +141,7 @@ public class CAPlayer {
 		InternalsProvider internals = CustomAdvancements.getInternals();
 		Player player = Bukkit.getPlayer(uuid);
 		if (internals != null && player != null) {
+			CustomAdvancements.getProfiler().recordPacketSend();
 			internals.sendAdvancements(player, CustomAdvancements.getInstance().getConfig().getBoolean("remove-default-trees", true))
 					.exceptionally(e -> {
 						CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Could not send advancements to " + player.getName() + "!", e);
@@ -135,7 +172,17 @@ public class CAPlayer {
 	 */
 	public boolean checkIfAdvancementActive(final String path) throws InvalidAdvancementException {
 		val advancement = CustomAdvancements.getAdvancementManager().getAdvancement(path);
-		return (advancementProgress.get(path).isActive() && !advancementProgress.get(path).isCompleted()) || (!advancementProgress.get(path).isCompleted() && CustomAdvancements.getAdvancementManager().getAdvancementTree(path.split("\\.")[0]).getOptions().isAutoActive() && advancement.meetRequirements(Bukkit.getPlayer(this.uuid)));
+		return (advancementProgress.get(path).isActive() && !advancementProgress.get(path).isCompleted()) || (!advancementProgress.get(path).isCompleted() && CustomAdvancements.getAdvancementManager().getAdvancementTree(path.split("\\.")[0]).getOptions().isAutoActive() && !CustomAdvancements.getAdvancementManager().getDependencyGraph().isCyclic(path) && meetRequirements(advancement));
+	}
+
+	/**
+	 * Checks if this player meets all requirements of an advancement, served from the {@link RequirementCache} when possible
+	 *
+	 * @param advancement the advancement the requirements should be checked for
+	 * @return true if all requirements are met
+	 */
+	public boolean meetRequirements(final CAdvancement advancement) {
+		return requirementCache.meetRequirements(advancement, Bukkit.getPlayer(this.uuid));
 	}
 
 	/**
@@ -178,10 +225,38 @@ public class CAPlayer {
 		if (maxProgress <= progress) {
 			caProgress.setCompleted(true);
 			caProgress.setActive(false);
-			updateMinecraftGui(path).thenAccept((v) -> {
+			val update = updateMinecraftGui(path);
+			if (update != null) update.thenAccept((v) -> {
 				caProgress.setAnnounced(true);
 			});
 			CustomAdvancements.getAdvancementManager().complete(path, uuid);
+			updateDependents(path);
+		}
+	}
+
+	/**
+	 * Re-evaluates the advancements that directly require the given advancement after it completed, see
+	 * {@link AdvancementDependencyGraph}. Their cached requirement results are dropped, and the ones in an auto active tree
+	 * whose requirements are met now are activated. Advancements on a requirement cycle are never activated.
+	 *
+	 * @param path the path of the completed advancement formatted as 'treeLabel.advancementLabel'
+	 */
+	private void updateDependents(final String path) {
+		final AdvancementDependencyGraph graph = CustomAdvancements.getAdvancementManager().getDependencyGraph();
+		final Set<String> dependents = graph.getDependents(path);
+		aggregates.invalidate();
+		requirementCache.invalidate(path);
+		requirementCache.invalidate(dependents);
+		for (final String dependent : dependents) {
+			val progress = advancementProgress.get(dependent);
+			if (progress == null || progress.isActive() || progress.isCompleted() || graph.isCyclic(dependent)) continue;
+			try {
+				val advancement = CustomAdvancements.getAdvancementManager().getAdvancement(dependent);
+				if (CustomAdvancements.getAdvancementManager().getAdvancementTree(dependent.split("\\.")[0]).getOptions().isAutoActive() && meetRequirements(advancement))
+					progress.setActive(true);
+			} catch (final InvalidAdvancementException ex) {
+				CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "Advancement '" + path + "' has an invalid dependent: " + dependent);
+			}
 		}
 	}
 
@@ -191,7 +266,7 @@ public class CAPlayer {
 	 * @return integer of amount completed quests
 	 */
 	public int amountCompleted() {
-		return amountCompleted(null);
+		return completionCounters.getCompleted();
 	}
 
 	/**
@@ -201,15 +276,12 @@ public class CAPlayer {
 	 * @return integer of amount completed quests in this tree
 	 */
 	public int amountCompleted(final String tree) {
-		int result = 0;
-		for (final Map.Entry<String, AdvancementProgress> entry : advancementProgress.entrySet()) {
-			if (tree == null && entry.getValue().isCompleted()) {
-				result++;
-			} else if (entry.getKey().startsWith(tree + ".") && entry.getValue().isCompleted()) {
-				result++;
-			}
+		if (tree == null) return amountCompleted();
+		try {
+			return completionCounters.getCompleted(CustomAdvancements.getAdvancementManager().getAdvancementTree(tree).getIndex());
+		} catch (final InvalidAdvancementException ex) {
+			return 0;
 		}
-		return result;
 	}
 
 
@@ -232,9 +304,11 @@ public class CAPlayer {
 	 */
 	public List<AdvancementRequirement> activateAdvancement(final String path, final boolean force) throws InvalidAdvancementException {
 		val advancement = CustomAdvancements.getAdvancementManager().getAdvancement(path);
-		if (force || advancement.meetRequirements(Bukkit.getPlayer(this.uuid))) {
+		final boolean cyclic = CustomAdvancements.getAdvancementManager().getDependencyGraph().isCyclic(path);
+		if (force || (!cyclic && advancement.meetRequirements(Bukkit.getPlayer(this.uuid)))) {
 			if (!force) advancement.activate(Bukkit.getPlayer(this.uuid));
 			advancementProgress.get(path).setActive(true);
+			aggregates.invalidate();
 			return null;
 		} else {
 			return advancement.getRequirements(false, Bukkit.getPlayer(this.uuid));
@@ -342,7 +416,7 @@ public class CAPlayer {
 		val tree = CustomAdvancements.getAdvancementManager().getAdvancementTree(treeLabel);
 		final List<CAdvancement> result = new LinkedList<>();
 		for (final CAdvancement advancement : tree.getAdvancements()) {
-			if (advancement.meetRequirements(Bukkit.getPlayer(this.uuid)) && !checkIfAdvancementActive(advancement.getPath()) && !checkIfAdvancementCompleted(advancement.getPath())) {
+			if (meetRequirements(advancement) && !checkIfAdvancementActive(advancement.getPath()) && !checkIfAdvancementCompleted(advancement.getPath())) {
 				result.add(advancement);
 			}
 		}
@@ -370,35 +444,92 @@ public class CAPlayer {
 	}
 
 	public void loadPendingRewards() {
-		final File file = new File(CustomAdvancements.getInstance().getDataFolder() + "/data/pendingrewards.yml");
-		if (!file.exists()) {
+		final File file = getPendingRewardsFile();
+		synchronized (PENDING_REWARDS_LOCK) {
+			final FileConfiguration data = YamlConfiguration.loadConfiguration(file);
 			try {
-				file.createNewFile();
-			} catch (final IOException ex) {
-				CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Failed to read and/or create plugin directory.", ex);
+				data.load(file);
+				final Queue<AdvancementReward> pending = new LinkedList<>();
+				if (data.getConfigurationSection(String.valueOf(this.uuid)) != null) {
+					val pendingList = data.getConfigurationSection(String.valueOf(this.uuid));
+					if (pendingList != null) {
+						for (final String i : pendingList.getKeys(false)) {
+							val type = pendingList.getString(i + ".type");
+							val value = pendingList.getString(i + ".value");
+							pending.add(new AdvancementReward(type, value));
+						}
+					}
+				}
+				pendingRewards = pending;
+			} catch (final Exception ex) {
+				CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Failed to load pending rewards!", ex);
 			}
 		}
-		final FileConfiguration data = YamlConfiguration.loadConfiguration(file);
-		try {
-			data.load(file);
-			final Queue<AdvancementReward> pending = new LinkedList<>();
-			if (data.getConfigurationSection(String.valueOf(this.uuid)) != null) {
-				val pendingList = data.getConfigurationSection(String.valueOf(this.uuid));
-				if (pendingList != null) {
-					for (final String i : pendingList.getKeys(false)) {
-						val type = pendingList.getString(i + ".type");
-						val value = pendingList.getString(i + ".value");
-						pending.add(new AdvancementReward(type, value));
+	}
+
+	public void savePendingRewards() {
+		final File file = getPendingRewardsFile();
+		synchronized (PENDING_REWARDS_LOCK) {
+			final FileConfiguration data = YamlConfiguration.loadConfiguration(file);
+			try {
+				data.load(file);
+				if (data.getConfigurationSection(String.valueOf(this.uuid)) != null) {
+					data.set(String.valueOf(this.uuid), null);
+				}
+				int i = 0;
+				for (final AdvancementReward reward : pendingRewards) {
+					data.set(this.uuid + "." + i + ".type", reward.getType().getLabel());
+					data.set(this.uuid + "." + i + ".value", reward.getValue());
+					i++;
+				}
+				data.save(file);
+			} catch (final Exception ex) {
+				CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Failed to save pending rewards!", ex);
+			}
+		}
+	}
+
+	/**
+	 * Appends rewards to the pending rewards of a player that is not loaded, they are given the next time the player joins
+	 *
+	 * @param playeruuid the uuid of the player
+	 * @param rewards    the rewards that should be added
+	 */
+	public static void appendPendingRewards(final UUID playeruuid, final Collection<AdvancementReward> rewards) {
+		appendPendingRewards(Collections.singletonMap(playeruuid, rewards));
+	}
+
+	/**
+	 * Appends rewards to the pending rewards of several players that are not loaded, the file is written once
+	 *
+	 * @param rewards map with key the uuid of a player and value the rewards that should be added
+	 */
+	public static void appendPendingRewards(final Map<UUID, ? extends Collection<AdvancementReward>> rewards) {
+		if (rewards.values().stream().allMatch(Collection::isEmpty)) return;
+		final File file = getPendingRewardsFile();
+		synchronized (PENDING_REWARDS_LOCK) {
+			final FileConfiguration data = YamlConfiguration.loadConfiguration(file);
+			try {
+				data.load(file);
+				for (final Map.Entry<UUID, ? extends Collection<AdvancementReward>> entry : rewards.entrySet()) {
+					final UUID playeruuid = entry.getKey();
+					val existing = data.getConfigurationSection(String.valueOf(playeruuid));
+					int i = existing == null ? 0 : existing.getKeys(false).size();
+					for (final AdvancementReward reward : entry.getValue()) {
+						while (data.get(playeruuid + "." + i) != null) i++;
+						data.set(playeruuid + "." + i + ".type", reward.getType().getLabel());
+						data.set(playeruuid + "." + i + ".value", reward.getValue());
+						i++;
 					}
 				}
+				data.save(file);
+			} catch (final Exception ex) {
+				CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Failed to save pending rewards!", ex);
 			}
-			pendingRewards = pending;
-		} catch (final Exception ex) {
-			CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Failed to load pending rewards!", ex);
 		}
 	}
 
-	public void savePendingRewards() {
+	private static File getPendingRewardsFile() {
 		final File file = new File(CustomAdvancements.getInstance().getDataFolder() + "/data/pendingrewards.yml");
 		if (!file.exists()) {
 			try {
@@ -407,21 +538,7 @@ public class CAPlayer {
 				CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Failed to read and/or create plugin directory.", ex);
 			}
 		}
-		final FileConfiguration data = YamlConfiguration.loadConfiguration(file);
-		try {
-			data.load(file);
-			if (data.getConfigurationSection(String.valueOf(this.uuid)) != null) {
-				data.set(String.valueOf(this.uuid), null);
-			}
-			final int i = 0;
-			for (final AdvancementReward reward : pendingRewards) {
-				data.set(this.uuid + "." + i + ".type", reward.getType().getLabel());
-				data.set(this.uuid + "." + i + ".value", reward.getValue());
-			}
-			data.save(file);
-		} catch (final Exception ex) {
-			CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Failed to save pending rewards!", ex);
-		}
+		return file;
 	}
 
 	public void save() {
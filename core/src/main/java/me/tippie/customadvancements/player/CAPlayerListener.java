@@ -6,12 +6,18 @@ import me.tippie.customadvancements.advancement.CAdvancement;
 import me.tippie.customadvancements.advancement.InvalidAdvancementException;
 import me.tippie.customadvancements.advancement.PlayerOpenAdvancementTabEvent;
 import me.tippie.customadvancements.advancement.requirement.types.Advancement;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerAdvancementDoneEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.UUID;
+
 /**
  * Listens to player join and quit events and loads/unloads {@link me.tippie.customadvancements.player.CAPlayer}'s when joining/leaving
  */
@@ -24,17 +30,33 @@ public class CAPlayerListener implements Listener {
 		if (CustomAdvancements.getInternals() != null)
 			CustomAdvancements.getInternals().registerAdvancementTabListener(event.getPlayer());
 
-		CustomAdvancements.getInstance().getServer().getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> {
-			CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(event.getPlayer().getUniqueId());
-			caPlayer.fixProgressFile();
-			caPlayer.givePendingRewards();
-			caPlayer.sendMinecraftGUI();
-		}, 25L);
+		CustomAdvancements.getInstance().getServer().getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> finishJoin(event.getPlayer()), 25L);
 
 	}
 
-	@EventHandler
+	/**
+	 * Gives pending rewards and sends the advancements GUI, retried every second while the player is still being loaded
+	 */
+	private void finishJoin(final Player player) {
+		if (!player.isOnline()) return;
+		CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId());
+		if (caPlayer == null) {
+			// Still waiting for offline progress to be written to their file
+			CustomAdvancements.getInstance().getServer().getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> finishJoin(player), 20L);
+			return;
+		}
+		caPlayer.fixProgressFile();
+		caPlayer.givePendingRewards();
+		caPlayer.sendMinecraftGUI();
+	}
+
+	/**
+	 * Saves a player that leaves. Runs last so the quit handlers of advancement types have flushed their progress
+	 * onto the {@link ProgressBus} already, which is drained before saving.
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
 	private void onDisconnect(final PlayerQuitEvent event) {
+		CustomAdvancements.getProgressBus().drain();
 		CustomAdvancements.getCaPlayerManager().savePlayer(event.getPlayer());
 		CustomAdvancements.getInstance().getServer().getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> {
 			if (event.getPlayer().isOnline()) return;
@@ -42,6 +64,29 @@ public class CAPlayerListener implements Listener {
 		}, 100L);
 	}
 
+	@EventHandler
+	private void onWorldChange(final PlayerChangedWorldEvent event) {
+		// Permission plugins commonly recalculate permissions per world
+		invalidateRequirements(event.getPlayer().getUniqueId());
+	}
+
+	/**
+	 * Permission plugins resend the commands of a player after recalculating their permissions, so the cached permission
+	 * results are dropped instead of waiting for them to expire
+	 */
+	@EventHandler
+	private void onCommandsSend(final PlayerCommandSendEvent event) {
+		invalidateRequirements(event.getPlayer().getUniqueId());
+	}
+
+	private void invalidateRequirements(final UUID uuid) {
+		CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(uuid);
+		if (caPlayer != null) {
+			caPlayer.getRequirementCache().invalidateAll();
+			caPlayer.getAggregates().invalidate();
+		}
+	}
+
 	@EventHandler
 	private void onLookingAtAdvancements(final PlayerOpenAdvancementTabEvent event) {
 		if (CustomAdvancements.getInternals() != null && event.getTabId() != null) {
@@ -7,9 +7,12 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents the player manager of {@link CAPlayer}'s
@@ -19,18 +22,43 @@ public class CAPlayerManager {
 	 * Map of UUID and their {@link CAPlayer}
 	 */
 	@Getter private final Map<UUID, CAPlayer> caPlayers = new HashMap<>();
-	private final Map<UUID, CAPlayer> cachedCaPlayers = new HashMap<>();
 
 	/**
-	 * Loads a player and their data
+	 * Map of UUID and the {@link CAPlayer} of an offline player, filled off the main thread by {@link CAPlayerManager#getOfflinePlayer(UUID)}
+	 */
+	private final Map<UUID, CAPlayer> cachedCaPlayers = new ConcurrentHashMap<>();
+
+	/**
+	 * UUIDs of the players that joined while offline progress was still being written to their file
+	 */
+	private final Set<UUID> loading = new HashSet<>();
+
+	/**
+	 * Map of UUID and the {@link CAPlayer} of a virtual player of a load test, kept apart from the players on the server
+	 */
+	private final Map<UUID, CAPlayer> virtualPlayers = new HashMap<>();
+
+	/**
+	 * Loads a player and their data. If offline progress is still being written to their file, the player is loaded on
+	 * the main thread once those writes are done instead, so {@link CAPlayerManager#getPlayer(UUID)} returns null until then.
+	 * MAKE SURE THIS IS CALLED SYNC!!
 	 *
 	 * @param player {@link Player} that must be loaded
 	 * @see AdvancementProgressFile#loadFile()
 	 */
 	public void loadPlayer(final Player player) {
-		if (!caPlayers.containsKey(player.getUniqueId())) {
-			caPlayers.put(player.getUniqueId(), new CAPlayer(player.getUniqueId()));
+		final UUID uuid = player.getUniqueId();
+		if (caPlayers.containsKey(uuid) || loading.contains(uuid)) return;
+		final CompletableFuture<Void> written = CustomAdvancements.getProgressService().whenWritten(uuid);
+		if (written.isDone()) {
+			caPlayers.put(uuid, new CAPlayer(uuid));
+			return;
 		}
+		loading.add(uuid);
+		written.whenComplete((v, t) -> {
+			loading.remove(uuid);
+			if (t == null && player.isOnline()) loadPlayer(player);
+		});
 	}
 
 	/**
@@ -50,7 +78,9 @@ public class CAPlayerManager {
 	 * @see AdvancementProgressFile#saveFile()
 	 */
 	public void savePlayer(final UUID playeruuid) {
-		getPlayer(playeruuid).save();
+		final CAPlayer player = getPlayer(playeruuid);
+		// Null if they leave before their offline progress was written, there is nothing to save yet then
+		if (player != null) player.save();
 	}
 
 	/**
@@ -62,30 +92,105 @@ public class CAPlayerManager {
 	public CAPlayer getPlayer(final UUID uuid) {
 		CAPlayer player = caPlayers.get(uuid);
 		if (player == null) {
-			player = cachedCaPlayers.get(uuid);
+			player = virtualPlayers.get(uuid);
+		}
+		if (player == null) {
+			player = getCachedPlayer(uuid);
 		}
 		return player;
 	}
 
 	public CompletableFuture<CAPlayer> getOfflinePlayer(final UUID uuid) {
-		return CompletableFuture.supplyAsync(() -> {
+		return CustomAdvancements.getProgressService().pendingWrites(uuid).thenApplyAsync(v -> {
 			CAPlayer player = caPlayers.get(uuid);
 			if (player != null) {
 				return player;
 			}
-			player = cachedCaPlayers.get(uuid);
+			player = getCachedPlayer(uuid);
 			if (player != null) {
 				return player;
 			}
 
-			player = new CAPlayer(uuid);
-			cachedCaPlayers.put(uuid, player);
-			Bukkit.getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> cachedCaPlayers.remove(uuid), 20*60L);
+			final CAPlayer loaded = new CAPlayer(uuid);
+			cachedCaPlayers.put(uuid, loaded);
+			Bukkit.getScheduler().runTaskLater(CustomAdvancements.getInstance(), () -> cachedCaPlayers.remove(uuid, loaded), 20*60L);
+			player = loaded;
 
 			return player;
 		});
 	}
 
+	/**
+	 * Checks if a player is loaded because they are online
+	 *
+	 * @param uuid uuid of a player
+	 * @return true if the {@link CAPlayer} of this player is loaded and will be saved when they leave
+	 */
+	public boolean isLoaded(final UUID uuid) {
+		return caPlayers.containsKey(uuid);
+	}
+
+	/**
+	 * Gets the temporarily cached {@link CAPlayer} of an offline player, a player cached with an older generation of
+	 * the advancement trees is dropped so it is loaded from their file again
+	 *
+	 * @param uuid uuid of a player
+	 * @return the cached {@link CAPlayer}, or null if none is cached for the current generation
+	 */
+	private CAPlayer getCachedPlayer(final UUID uuid) {
+		final CAPlayer player = cachedCaPlayers.get(uuid);
+		if (player == null || player.getGeneration() == CustomAdvancements.getAdvancementManager().getGeneration()) return player;
+		cachedCaPlayers.remove(uuid, player);
+		return null;
+	}
+
+	/**
+	 * Drops all temporarily cached {@link CAPlayer}'s, called once a reload published new advancement trees
+	 */
+	public void clearCachedPlayers() {
+		cachedCaPlayers.clear();
+	}
+
+	/**
+	 * Drops the temporarily cached {@link CAPlayer} of an offline player, the next lookup loads it from their file again
+	 *
+	 * @param uuid uuid of a player
+	 */
+	void evictCachedPlayer(final UUID uuid) {
+		cachedCaPlayers.remove(uuid);
+	}
+
+	/**
+	 * Loads a virtual player of a load test, they make progress like any loaded player but complete advancements without
+	 * rewards or announcements. MAKE SURE THIS IS CALLED SYNC!!
+	 *
+	 * @param player the virtual {@link Player}
+	 * @return the loaded {@link CAPlayer}
+	 */
+	public CAPlayer loadVirtualPlayer(final Player player) {
+		return virtualPlayers.computeIfAbsent(player.getUniqueId(), CAPlayer::new);
+	}
+
+	/**
+	 * Unloads a virtual player of a load test without saving, MAKE SURE THIS IS CALLED SYNC!!
+	 *
+	 * @param uuid uuid of the virtual player
+	 * @return the unloaded {@link CAPlayer}, or null if it was not loaded
+	 */
+	public CAPlayer unloadVirtualPlayer(final UUID uuid) {
+		return virtualPlayers.remove(uuid);
+	}
+
+	/**
+	 * Checks if a player is a loaded virtual player of a load test
+	 *
+	 * @param uuid uuid of a player
+	 * @return true if the player only exists in a load test
+	 */
+	public boolean isVirtual(final UUID uuid) {
+		return !virtualPlayers.isEmpty() && virtualPlayers.containsKey(uuid);
+	}
+
 	/**
 	 * Unloads a player
 	 *
@@ -0,0 +1,78 @@
+package me.tippie.customadvancements.player;
+
+/**
+ * Per-tree counters of the completed and active advancements of a single {@link CAPlayer}, indexed by
+ * {@link me.tippie.customadvancements.advancement.AdvancementTree#getIndex()}. The counters are updated by
+ * {@link me.tippie.customadvancements.player.datafile.AdvancementProgress} on every state transition, so reading them is O(1).
+ * An advancement counts as active when it is activated and not completed yet, auto-activated advancements are not counted
+ * since that depends on their requirements.
+ */
+public class CompletionCounters {
+	private final int[] completed;
+	private final int[] active;
+	private int totalCompleted = 0;
+	private int totalActive = 0;
+
+	/**
+	 * Creates new counters for the given amount of trees
+	 *
+	 * @param trees the amount of loaded trees
+	 */
+	CompletionCounters(final int trees) {
+		completed = new int[trees];
+		active = new int[trees];
+	}
+
+	/**
+	 * Updates the counters of a tree
+	 *
+	 * @param tree           the index of the tree
+	 * @param completedDelta the change in completed advancements
+	 * @param activeDelta    the change in active advancements
+	 */
+	public void update(final int tree, final int completedDelta, final int activeDelta) {
+		if (tree < 0 || tree >= completed.length) return;
+		completed[tree] += completedDelta;
+		active[tree] += activeDelta;
+		totalCompleted += completedDelta;
+		totalActive += activeDelta;
+	}
+
+	/**
+	 * Gets the amount of completed advancements in a tree
+	 *
+	 * @param tree the index of the tree
+	 * @return the amount of completed advancements
+	 */
+	public int getCompleted(final int tree) {
+		return tree < 0 || tree >= completed.length ? 0 : completed[tree];
+	}
+
+	/**
+	 * Gets the amount of completed advancements in all trees
+	 *
+	 * @return the amount of completed advancements
+	 */
+	public int getCompleted() {
+		return totalCompleted;
+	}
+
+	/**
+	 * Gets the amount of activated, not completed advancements in a tree
+	 *
+	 * @param tree the index of the tree
+	 * @return the amount of active advancements
+	 */
+	public int getActive(final int tree) {
+		return tree < 0 || tree >= active.length ? 0 : active[tree];
+	}
+
+	/**
+	 * Gets the amount of activated, not completed advancements in all trees
+	 *
+	 * @return the amount of active advancements
+	 */
+	public int getActive() {
+		return totalActive;
+	}
+}
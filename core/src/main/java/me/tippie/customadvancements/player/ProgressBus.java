@@ -0,0 +1,128 @@
+package me.tippie.customadvancements.player;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.InvalidAdvancementException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Collects progress updates from any thread and applies them on the main thread once per tick.
+ * Updates are applied in the order they were queued, completion checks run once per advancement per player per drain.
+ * Updates of players that are no longer loaded by then, for example after they left or during a reload, are handed to
+ * the {@link ProgressService} and written to their progress file instead.
+ */
+public class ProgressBus {
+
+	/**
+	 * Updates waiting to be applied
+	 */
+	private final Queue<ProgressUpdate> queue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Amount of updates in {@link ProgressBus#queue}, {@link ConcurrentLinkedQueue#size()} is not constant time
+	 */
+	private final AtomicInteger backlog = new AtomicInteger();
+
+	/**
+	 * Queues a progress update, safe to call from any thread
+	 *
+	 * @param playeruuid the UUID of the player progression should be made for
+	 * @param path       the path of the advancement formatted as 'treeLabel.advancementLabel'
+	 * @param amount     amount of progress that should be made, can be negative
+	 * @param set        boolean if the amount value should be added to the progress or the progress should be set to the amount
+	 */
+	public void enqueue(final UUID playeruuid, final String path, final int amount, final boolean set) {
+		queue.add(new ProgressUpdate(playeruuid, path, amount, set, false));
+		backlog.incrementAndGet();
+	}
+
+	/**
+	 * Queues a progress update that is only applied if the advancement is active for the player at the moment it is
+	 * applied, safe to call from any thread
+	 *
+	 * @param playeruuid the UUID of the player progression should be made for
+	 * @param path       the path of the advancement formatted as 'treeLabel.advancementLabel'
+	 * @param amount     amount of progress that should be made
+	 */
+	public void enqueueIfActive(final UUID playeruuid, final String path, final int amount) {
+		queue.add(new ProgressUpdate(playeruuid, path, amount, false, true));
+		backlog.incrementAndGet();
+	}
+
+	/**
+	 * Applies all queued updates and checks the touched advancements for completion. MAKE SURE THIS IS CALLED SYNC!!
+	 */
+	public void drain() {
+		if (queue.isEmpty()) return;
+		final long start = CustomAdvancements.getProfiler().start();
+		int applied = 0;
+		final Map<UUID, Set<String>> touched = new LinkedHashMap<>();
+		final Map<UUID, List<ProgressService.Delta>> unloaded = new LinkedHashMap<>();
+		int dropped = 0;
+		for (ProgressUpdate update; (update = queue.poll()) != null; ) {
+			backlog.decrementAndGet();
+			applied++;
+			final CAPlayer player = CustomAdvancements.getCaPlayerManager().getPlayer(update.playeruuid);
+			if (player == null) {
+				// Whether the advancement is active cannot be checked without the player, so conditional updates are dropped
+				if (update.ifActive) dropped++;
+				else unloaded.computeIfAbsent(update.playeruuid, k -> new ArrayList<>())
+						.add(update.set ? ProgressService.Delta.set(update.path, update.amount) : ProgressService.Delta.add(update.path, update.amount));
+				continue;
+			}
+			try {
+				if (player.checkIfAdvancementCompleted(update.path)) continue;
+				if (update.ifActive && !player.checkIfAdvancementActive(update.path)) continue;
+				player.updateProgress(update.path, update.amount, false, update.set);
+				touched.computeIfAbsent(update.playeruuid, k -> new LinkedHashSet<>()).add(update.path);
+			} catch (final InvalidAdvancementException ex) {
+				CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Attempted to add progression to an invalid advancement: " + update.path);
+			}
+		}
+
+		for (final Map.Entry<UUID, Set<String>> entry : touched.entrySet()) {
+			final CAPlayer player = CustomAdvancements.getCaPlayerManager().getPlayer(entry.getKey());
+			if (player == null) continue;
+			player.getAggregates().invalidate();
+			for (final String path : entry.getValue()) {
+				try {
+					player.checkCompleted(path);
+				} catch (final InvalidAdvancementException ex) {
+					CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Attempted to complete an invalid advancement: " + path);
+				}
+			}
+		}
+		if (!unloaded.isEmpty()) CustomAdvancements.getProgressService().applyOffline(unloaded);
+		if (dropped > 0)
+			CustomAdvancements.getInstance().getLogger().log(Level.INFO, "Dropped " + dropped + " progress updates that only apply to active advancements, their players are no longer loaded.");
+		CustomAdvancements.getProfiler().recordDrain(applied, start);
+	}
+
+	/**
+	 * Gets the amount of updates waiting to be applied
+	 *
+	 * @return the amount of queued updates
+	 */
+	public int getBacklog() {
+		return backlog.get();
+	}
+
+	private static final class ProgressUpdate {
+		private final UUID playeruuid;
+		private final String path;
+		private final int amount;
+		private final boolean set;
+		private final boolean ifActive;
+
+		private ProgressUpdate(final UUID playeruuid, final String path, final int amount, final boolean set, final boolean ifActive) {
+			this.playeruuid = playeruuid;
+			this.path = path;
+			this.amount = amount;
+			this.set = set;
+			this.ifActive = ifActive;
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package me.tippie.customadvancements.player;
+
+import lombok.Getter;
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.AdvancementManager;
+import me.tippie.customadvancements.advancement.AdvancementTree;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.advancement.InvalidAdvancementException;
+import me.tippie.customadvancements.advancement.reward.AdvancementReward;
+import me.tippie.customadvancements.player.datafile.AdvancementProgress;
+import me.tippie.customadvancements.player.datafile.AdvancementProgressFile;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.IllegalPluginAccessException;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Applies progress in bulk for other plugins, for example nightly batch rewards. Progress of online players goes through
+ * the {@link ProgressBus}, the progress file of every other player is loaded once, updated with all of their deltas and
+ * written once, off the main thread. Rewards of advancements completed that way are given the next time the player joins.
+ * Writes of the same player run one after another, and loading a player is chained onto their pending writes.
+ */
+public class ProgressService {
+
+	/**
+	 * Map with key the uuid of a player and value the last file write queued for them, removed once it is done
+	 */
+	private final Map<UUID, CompletableFuture<Void>> writes = new ConcurrentHashMap<>();
+
+	/**
+	 * Applies progress to any set of players, online or offline. Can be called from any thread, the main thread is only
+	 * used once per call to find out which players are online.
+	 *
+	 * @param deltas map with key the uuid of a player and value the progress that should be applied to them, in order
+	 * @return a future that completes once all online progress is queued and all offline progress files are written
+	 */
+	public CompletableFuture<Void> applyOffline(final Map<UUID, List<Delta>> deltas) {
+		final Map<UUID, List<Delta>> copy = new HashMap<>(deltas);
+		if (Bukkit.isPrimaryThread()) return route(copy);
+		final CompletableFuture<Void> result = new CompletableFuture<>();
+		Bukkit.getScheduler().runTask(CustomAdvancements.getInstance(), () -> {
+			try {
+				route(copy).whenComplete((v, t) -> {
+					if (t != null) result.completeExceptionally(t);
+					else result.complete(null);
+				});
+			} catch (final Throwable t) {
+				result.completeExceptionally(t);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Queues the deltas of loaded players on the {@link ProgressBus} and the file writes of all other players,
+	 * MAKE SURE THIS IS CALLED SYNC!!
+	 *
+	 * @return a future that completes once the file writes are done
+	 */
+	private CompletableFuture<Void> route(final Map<UUID, List<Delta>> deltas) {
+		final CAPlayerManager manager = CustomAdvancements.getCaPlayerManager();
+		final List<UUID> leaving = new ArrayList<>();
+		final List<CompletableFuture<Void>> pending = new ArrayList<>();
+		for (final Map.Entry<UUID, List<Delta>> entry : deltas.entrySet()) {
+			if (manager.isLoaded(entry.getKey())) {
+				for (final Delta delta : entry.getValue())
+					CustomAdvancements.getProgressBus().enqueue(entry.getKey(), delta.path, delta.amount, delta.set);
+				if (Bukkit.getPlayer(entry.getKey()) == null) leaving.add(entry.getKey());
+			} else {
+				manager.evictCachedPlayer(entry.getKey());
+				pending.add(write(entry.getKey(), entry.getValue()));
+			}
+		}
+		if (!leaving.isEmpty()) {
+			// These players left already and are unloaded without another save, so save the applied progress now
+			CustomAdvancements.getProgressBus().drain();
+			leaving.forEach(manager::savePlayer);
+		}
+		return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]));
+	}
+
+	/**
+	 * Queues a write of the progress file of a player after the writes that are already queued for them
+	 */
+	private CompletableFuture<Void> write(final UUID playeruuid, final List<Delta> deltas) {
+		final CompletableFuture<Void> write = writes.compute(playeruuid, (uuid, previous) ->
+				(previous == null ? CompletableFuture.<Void>completedFuture(null) : previous.exceptionally(t -> null))
+						.thenRunAsync(() -> applyToFile(playeruuid, deltas)));
+		write.whenComplete((v, t) -> {
+			writes.remove(playeruuid, write);
+			if (t != null)
+				CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Failed to apply offline progress for " + playeruuid, t);
+			if (CustomAdvancements.getInstance().isEnabled())
+				Bukkit.getScheduler().runTask(CustomAdvancements.getInstance(), () -> CustomAdvancements.getCaPlayerManager().evictCachedPlayer(playeruuid));
+		});
+		return write;
+	}
+
+	/**
+	 * Gets a future that completes once the writes queued so far for the progress file of a player are done, failed
+	 * writes complete it normally since they are logged already
+	 *
+	 * @param playeruuid the uuid of the player
+	 * @return a future completed on the thread of the last write, or an already completed future if nothing is queued
+	 */
+	public CompletableFuture<Void> pendingWrites(final UUID playeruuid) {
+		final CompletableFuture<Void> write = writes.get(playeruuid);
+		return write == null ? CompletableFuture.completedFuture(null) : write.exceptionally(t -> null);
+	}
+
+	/**
+	 * Gets a future that completes on the main thread once the writes queued so far for a player are done
+	 *
+	 * @param playeruuid the uuid of the player
+	 * @return a future completed on the main thread, or an already completed future if nothing is queued
+	 */
+	public CompletableFuture<Void> whenWritten(final UUID playeruuid) {
+		return onMainThread(pendingWrites(playeruuid));
+	}
+
+	/**
+	 * Gets a future that completes on the main thread once all writes queued so far are done
+	 *
+	 * @return a future completed on the main thread, or an already completed future if nothing is queued
+	 */
+	public CompletableFuture<Void> whenWritten() {
+		return onMainThread(CompletableFuture.allOf(writes.keySet().stream().map(this::pendingWrites).toArray(CompletableFuture[]::new)));
+	}
+
+	/**
+	 * Relays a future to the main thread, an already completed future is returned as is
+	 */
+	private static CompletableFuture<Void> onMainThread(final CompletableFuture<Void> future) {
+		if (future.isDone()) return future;
+		final CompletableFuture<Void> result = new CompletableFuture<>();
+		future.whenComplete((v, t) -> {
+			try {
+				Bukkit.getScheduler().runTask(CustomAdvancements.getInstance(), () -> result.complete(null));
+			} catch (final IllegalPluginAccessException e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Waits until all queued writes of the progress file of a player are done
+	 *
+	 * @param playeruuid the uuid of the player
+	 */
+	private void awaitWrites(final UUID playeruuid) {
+		final CompletableFuture<Void> write = writes.get(playeruuid);
+		if (write == null) return;
+		try {
+			write.join();
+		} catch (final CompletionException ignored) {
+			// Already logged by the write itself
+		}
+	}
+
+	/**
+	 * Waits until all queued writes are done, blocking the calling thread. Only called when the plugin disables,
+	 * use {@link ProgressService#whenWritten()} everywhere else.
+	 */
+	public void awaitWrites() {
+		for (final UUID playeruuid : new ArrayList<>(writes.keySet())) awaitWrites(playeruuid);
+	}
+
+	/**
+	 * Loads the progress file of a player once, applies all deltas, marks completed advancements and writes it once
+	 */
+	private void applyToFile(final UUID playeruuid, final List<Delta> deltas) {
+		final AdvancementProgressFile file = new AdvancementProgressFile(playeruuid);
+		final Map<String, AdvancementProgress> progress = file.loadFile();
+		final List<AdvancementReward> rewards = new ArrayList<>();
+		final Set<String> touchedTrees = new HashSet<>();
+
+		for (final Delta delta : deltas) {
+			final AdvancementProgress current = progress.get(delta.path);
+			if (current == null) {
+				CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "Attempted to add offline progression to an invalid advancement: " + delta.path);
+				continue;
+			}
+			if (current.isCompleted()) continue;
+			current.setProgress(delta.set ? delta.amount : current.getProgress() + delta.amount);
+			try {
+				final CAdvancement advancement = CustomAdvancements.getAdvancementManager().getAdvancement(delta.path);
+				if (advancement.getMaxProgress() <= current.getProgress()) {
+					current.setCompleted(true);
+					current.setActive(false);
+					rewards.addAll(advancement.getRewards());
+					touchedTrees.add(AdvancementManager.getAdvancementTreeLabel(delta.path));
+				}
+			} catch (final InvalidAdvancementException ex) {
+				CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "Attempted to add offline progression to an invalid advancement: " + delta.path);
+			}
+		}
+
+		for (final String treeLabel : touchedTrees) {
+			final AdvancementTree tree;
+			try {
+				tree = CustomAdvancements.getAdvancementManager().getAdvancementTree(treeLabel);
+			} catch (final InvalidAdvancementException ex) {
+				continue;
+			}
+			int completed = 0;
+			for (final CAdvancement advancement : tree.getAdvancements()) {
+				final AdvancementProgress advancementProgress = progress.get(advancement.getPath());
+				if (advancementProgress != null && advancementProgress.isCompleted()) completed++;
+			}
+			if (completed >= tree.getAdvancements().size()) rewards.addAll(tree.getOptions().getRewards());
+		}
+
+		file.saveFile(progress);
+		CAPlayer.appendPendingRewards(playeruuid, rewards);
+	}
+
+	/**
+	 * A single progress change of one advancement
+	 */
+	public static final class Delta {
+		/**
+		 * The path of the advancement formatted as 'treeLabel.advancementLabel'
+		 */
+		@Getter private final String path;
+		@Getter private final int amount;
+
+		/**
+		 * boolean if the progress should be set to the amount instead of the amount being added to it
+		 */
+		@Getter private final boolean set;
+
+		private Delta(final String path, final int amount, final boolean set) {
+			this.path = path;
+			this.amount = amount;
+			this.set = set;
+		}
+
+		/**
+		 * Creates a delta that adds to the progress of an advancement
+		 *
+		 * @param path   the path of the advancement formatted as 'treeLabel.advancementLabel'
+		 * @param amount amount of progress that should be made, can be negative
+		 * @return the delta
+		 */
+		public static Delta add(final String path, final int amount) {
+			return new Delta(path, amount, false);
+		}
+
+		/**
+		 * Creates a delta that sets the progress of an advancement
+		 *
+		 * @param path   the path of the advancement formatted as 'treeLabel.advancementLabel'
+		 * @param amount the new progress
+		 * @return the delta
+		 */
+		public static Delta set(final String path, final int amount) {
+			return new Delta(path, amount, true);
+		}
+	}
+}
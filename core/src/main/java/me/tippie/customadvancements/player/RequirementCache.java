@@ -0,0 +1,104 @@
+package me.tippie.customadvancements.player;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.CAdvancement;
+import me.tippie.customadvancements.advancement.requirement.AdvancementRequirement;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the result of {@link CAdvancement#meetRequirements(Player)} per advancement for a single {@link CAPlayer}.
+ * Results that only depend on advancement requirements are kept until an advancement completes, results that
+ * depend on volatile requirement types (permissions, custom types) expire after the configured time to live.
+ * Bukkit has no event for recalculated permissions, so the cache of a player is only cleared early when they change
+ * worlds or their commands are resent, which permission plugins do after recalculating. Otherwise a changed permission
+ * is seen once its result expires.
+ */
+public class RequirementCache {
+	/**
+	 * Milliseconds a volatile result is cached, read from {@code requirements.cache-ttl} on (re)load
+	 */
+	private static volatile long timeToLive = 5000L;
+
+	/**
+	 * Map with key the path of an advancement and value the cached result
+	 */
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Checks if the player meets the requirements of an advancement, using the cached result when it is still valid
+	 *
+	 * @param advancement the advancement the requirements should be checked for
+	 * @param player      the player the requirements should be checked on
+	 * @return true if all requirements are met
+	 */
+	public boolean meetRequirements(final CAdvancement advancement, final Player player) {
+		final long now = System.currentTimeMillis();
+		final Entry entry = entries.get(advancement.getPath());
+		final boolean hit = entry != null && entry.expiresAt > now;
+		CustomAdvancements.getProfiler().recordRequirementCheck(hit);
+		if (hit) return entry.result;
+		final boolean result = advancement.meetRequirements(player);
+		entries.put(advancement.getPath(), new Entry(result, isVolatile(advancement) ? now + timeToLive : Long.MAX_VALUE));
+		return result;
+	}
+
+	/**
+	 * Invalidates the cached result of the given advancements
+	 *
+	 * @param paths the paths of the advancements formatted as 'treeLabel.advancementLabel'
+	 */
+	public void invalidate(final Collection<String> paths) {
+		for (final String path : paths) entries.remove(path);
+	}
+
+	/**
+	 * Invalidates the cached result of a single advancement
+	 *
+	 * @param path the path of an advancement formatted as 'treeLabel.advancementLabel'
+	 */
+	public void invalidate(final String path) {
+		entries.remove(path);
+	}
+
+	/**
+	 * Invalidates all cached results, for example when the permissions of the player changed
+	 */
+	public void invalidateAll() {
+		entries.clear();
+	}
+
+	private static boolean isVolatile(final CAdvancement advancement) {
+		for (final AdvancementRequirement requirement : advancement.getRequirements()) {
+			if (requirement.getType().isVolatile()) return true;
+		}
+		return false;
+	}
+
+	static long getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * Reads the time to live of volatile results, MAKE SURE THIS IS CALLED on (re)load!!
+	 *
+	 * @param config the plugin config
+	 */
+	public static void loadConfig(final FileConfiguration config) {
+		timeToLive = Math.max(0, config.getLong("requirements.cache-ttl", 5)) * 1000L;
+	}
+
+	private static final class Entry {
+		private final boolean result;
+		private final long expiresAt;
+
+		private Entry(final boolean result, final long expiresAt) {
+			this.result = result;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
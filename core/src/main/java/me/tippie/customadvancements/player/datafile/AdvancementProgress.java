@@ -1,7 +1,9 @@
 package me.tippie.customadvancements.player.datafile;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import me.tippie.customadvancements.player.CompletionCounters;
 
 /**
  * Represents Advancement Progression
@@ -33,6 +35,16 @@ public class AdvancementProgress {
 	 */
 	private boolean announced;
 
+	/**
+	 * The counters of the player this progress belongs to, null if it is not attached to a loaded player
+	 */
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private CompletionCounters counters;
+
+	/**
+	 * The index of the tree of this advancement in {@link AdvancementProgress#counters}
+	 */
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private int treeIndex;
+
 	/**
 	 * Creates a new {@link AdvancementProgress}
 	 *
@@ -47,4 +59,38 @@ public class AdvancementProgress {
 		this.unlocked = unlocked;
 		this.announced = announced;
 	}
+
+	/**
+	 * Attaches this progress to the counters of a player and counts its current state
+	 *
+	 * @param counters  the {@link CompletionCounters} of the player
+	 * @param treeIndex the index of the tree of this advancement
+	 */
+	public void attach(final CompletionCounters counters, final int treeIndex) {
+		this.counters = counters;
+		this.treeIndex = treeIndex;
+		counters.update(treeIndex, completed ? 1 : 0, isCountedActive() ? 1 : 0);
+	}
+
+	public void setCompleted(final boolean completed) {
+		if (this.completed == completed) return;
+		final boolean wasActive = isCountedActive();
+		this.completed = completed;
+		if (counters != null) counters.update(treeIndex, completed ? 1 : -1, activeDelta(wasActive));
+	}
+
+	public void setActive(final boolean active) {
+		if (this.active == active) return;
+		final boolean wasActive = isCountedActive();
+		this.active = active;
+		if (counters != null) counters.update(treeIndex, 0, activeDelta(wasActive));
+	}
+
+	private boolean isCountedActive() {
+		return active && !completed;
+	}
+
+	private int activeDelta(final boolean wasActive) {
+		return (isCountedActive() ? 1 : 0) - (wasActive ? 1 : 0);
+	}
 }
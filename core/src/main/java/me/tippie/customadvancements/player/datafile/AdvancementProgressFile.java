@@ -1,6 +1,7 @@
 package me.tippie.customadvancements.player.datafile;
 
 import lombok.Getter;
+import lombok.Setter;
 import lombok.val;
 import me.tippie.customadvancements.CustomAdvancements;
 import me.tippie.customadvancements.advancement.AdvancementTree;
@@ -23,11 +24,22 @@ import java.util.logging.Level;
  * Represents the progress file of a player
  */
 public class AdvancementProgressFile {
+	/**
+	 * The path of the playtime carry in the file, tree labels are lower case so it can not collide with an advancement
+	 */
+	private static final String PLAYTIME_CARRY = "Types.playtime.carry";
+
 	/**
 	 * The uuid of the player this progress file belogns to
 	 */
 	@Getter private final UUID playeruuid;
 
+	/**
+	 * The milliseconds of playtime of this player that were not credited yet as a whole minute, read by {@link AdvancementProgressFile#loadFile()}
+	 * and written by {@link AdvancementProgressFile#saveFile(Map)}
+	 */
+	@Getter @Setter private long playtimeCarry;
+
 	/**
 	 * Creates a new {@link AdvancementProgressFile} but does not load nor create it if it doesn't exist
 	 *
@@ -64,6 +76,7 @@ public class AdvancementProgressFile {
 		try {
 			final FileConfiguration data = YamlConfiguration.loadConfiguration(file);
 			data.load(file);
+			playtimeCarry = data.getLong(PLAYTIME_CARRY, 0);
 			final List<AdvancementTree> advancementTrees = CustomAdvancements.getAdvancementManager().getAdvancementTrees();
 			for (final AdvancementTree advancementTree : advancementTrees) {
 				final List<CAdvancement> advancements = advancementTree.getAdvancements();
@@ -98,6 +111,15 @@ public class AdvancementProgressFile {
 	 * Saves the progress file of this player
 	 */
 	public void saveFile() {
+		saveFile(CustomAdvancements.getCaPlayerManager().getPlayer(this.playeruuid).getAdvancementProgress());
+	}
+
+	/**
+	 * Saves the given progress into the progress file of this player, does not require the player to be loaded
+	 *
+	 * @param progress a map with key the path of an advancement and value the {@link AdvancementProgress} that belongs to it
+	 */
+	public void saveFile(final Map<String, AdvancementProgress> progress) {
 		final File file = new File(CustomAdvancements.getInstance().getDataFolder() + "/data/" + this.playeruuid.toString() + ".yml");
 		if (!file.exists()) {
 			try {
@@ -115,13 +137,14 @@ public class AdvancementProgressFile {
 //		}
 		final FileConfiguration data = YamlConfiguration.loadConfiguration(file);
 		try {
-			for (final Map.Entry<String, AdvancementProgress> entry : CustomAdvancements.getCaPlayerManager().getPlayer(this.playeruuid).getAdvancementProgress().entrySet()) {
+			for (final Map.Entry<String, AdvancementProgress> entry : progress.entrySet()) {
 				data.set(entry.getKey() + ".progress", entry.getValue().getProgress());
 				data.set(entry.getKey() + ".active", entry.getValue().isActive());
 				data.set(entry.getKey() + ".completed", entry.getValue().isCompleted());
 				data.set(entry.getKey() + ".unlocked", entry.getValue().isUnlocked());
 				data.set(entry.getKey() + ".announced", entry.getValue().isAnnounced());
 			}
+			data.set(PLAYTIME_CARRY, playtimeCarry > 0 ? playtimeCarry : null);
 			data.save(file);
 		} catch (final IOException ex) {
 			CustomAdvancements.getInstance().getLogger().log(Level.SEVERE, "Failed to read and/or create plugin directory.", ex);
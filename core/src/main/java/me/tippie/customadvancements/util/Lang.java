@@ -3,6 +3,8 @@ package me.tippie.customadvancements.util;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -30,6 +32,8 @@ public enum Lang {
 	COMMAND_RELOAD_DESC("commands.reload.desc", "Reloads the configuration, advancements, and messages of the plugin"),
 	COMMAND_RELOAD_USAGE("commands.reload.usage", "/ca reload"),
 	COMMAND_RELOAD_RESPONSE("commands.reload.response", "&aConfiguration, advancements, and messages are successfully reloaded!"),
+	COMMAND_RELOAD_SUPERSEDED("commands.reload.superseded", "&eA newer reload finished first, the advancements of that reload are in use instead."),
+	COMMAND_RELOAD_FAILED("commands.reload.failed", "&cThe advancements could not be reloaded, the previously loaded advancements are still in use. Check the console for details."),
 	COMMAND_ACTIVATE_DESC("commands.activate.desc", "Activates an advancement of a specific tree if all requirements are met"),
 	COMMAND_ACTIVATE_USAGE("commands.activate.usage", "/ca activate <tree> <advancement>"),
 	COMMAND_ACTIVATE_RESPONSE_ACTIVATED("commands.activate.response.activated", "&aThe quest has successfully been activated! Good luck!"),
@@ -37,6 +41,23 @@ public enum Lang {
 	COMMAND_ACTIVATE_RESPONSE_REQUIREMENT_NOTMET("commands.activate.response.requirement_not_met", "&4> &c{0}\n"),
 	COMMAND_GUI_DESC("commands.gui.desc", "Opens the custom advancements GUI"),
 	COMMAND_GUI_USAGE("commands.gui.usage", "/ca gui"),
+	COMMAND_DEBUG_DESC("commands.debug.desc", "Shows internal counters of the plugin"),
+	COMMAND_DEBUG_USAGE("commands.debug.usage", "/ca debug"),
+	COMMAND_DEBUG_HEADER("commands.debug.header", "&6---- &9CustomAdvancements Debug &6----"),
+	COMMAND_DEBUG_ENTRY("commands.debug.entry", "&3{0}: &9{1}"),
+	COMMAND_STATS_DESC("commands.stats.desc", "Shows how much work each advancement type does and how long it takes"),
+	COMMAND_STATS_USAGE("commands.stats.usage", "/ca stats"),
+	COMMAND_STATS_HEADER("commands.stats.header", "&6---- &9CustomAdvancements Stats &6----"),
+	COMMAND_STATS_DISABLED("commands.stats.disabled", "&cStatistics are disabled in the config (stats.enabled)."),
+	COMMAND_STATS_TYPE("commands.stats.type", "&d{0}&8: &7{1} events, {2} matched, {3} progressions, &e{4}µs&7 p50 / &e{5}µs&7 p99 / &e{6}µs&7 max"),
+	COMMAND_STATS_ENTRY("commands.stats.entry", "&3{0}: &9{1}"),
+	COMMAND_LOADTEST_DESC("commands.loadtest.desc", "Simulates virtual players to measure how much load the plugin can handle"),
+	COMMAND_LOADTEST_USAGE("commands.loadtest.usage", "/ca loadtest <players> <seconds> [blockbreak/s] [move/s] [chat/s] [craft/s] | stop | status"),
+	COMMAND_LOADTEST_STARTED("commands.loadtest.started", "&aStarted a load test with {0} virtual players for {1} seconds."),
+	COMMAND_LOADTEST_RUNNING("commands.loadtest.running", "&cA load test is already running, stop it with /ca loadtest stop."),
+	COMMAND_LOADTEST_NOT_RUNNING("commands.loadtest.not-running", "&cThere is no load test running."),
+	COMMAND_LOADTEST_HEADER("commands.loadtest.header", "&6---- &9CustomAdvancements Load Test &6----"),
+	COMMAND_LOADTEST_ENTRY("commands.loadtest.entry", "&3{0}: &9{1}"),
 	REQUIREMENT_ADVANCEMENT_MESSAGE("requirements.advancement.message", "Advancement {0} from tree {1} has to be completed."),
 	REQUIREMENT_ADVANCEMENT_NAME("requirements.advancement.name", "Advancement"),
 	REQUIREMENT_PERMISSION_NAME("requirements.permission.name", "Permission"),
@@ -128,15 +149,34 @@ public enum Lang {
 
 	private final String path;
 	private final String def;
-	private static FileConfiguration LANG;
+
+	/**
+	 * The prefix with color codes translated, followed by a space. Volatile since messages are also built off the main thread
+	 */
+	private static volatile String PREFIX_RENDERED = "";
+
+	/**
+	 * The message of this entry compiled from the current messages file, null if no file is loaded
+	 */
+	private volatile Template template;
 
 	Lang(final String path, final String start) {
 		this.path = path;
 		this.def = start;
 	}
 
+	/**
+	 * Sets the messages file and compiles all messages into templates, MAKE SURE THIS IS CALLED on (re)load!!
+	 *
+	 * @param config the messages file
+	 */
 	public static void setFile(final FileConfiguration config) {
-		LANG = config;
+		PREFIX_RENDERED = ChatColor.translateAlternateColorCodes('&',
+				Objects.requireNonNull(config.getString("PREFIX", "&6[&5Custom&dAdvancements&6]&r"))) + " ";
+		for (final Lang value : values()) {
+			final String message = config.getString(value.path, value.def);
+			value.template = (message == null) ? null : Template.compile(ChatColor.translateAlternateColorCodes('&', message));
+		}
 	}
 
 	public String getDefault() {
@@ -179,29 +219,73 @@ public enum Lang {
 	 * @return String of the requested enum value with placeholders filled in.
 	 */
 	public String getConfigValue(final String[] args, final boolean noprefix) {
-		String value;
-		try {
-			value = ChatColor.translateAlternateColorCodes('&',
-					Objects.requireNonNull(LANG.getString(this.path, this.def)));
-		} catch (final NullPointerException e) {
-			return "Failed to load string.";
-		}
-		final String prefix = ChatColor.translateAlternateColorCodes('&',
-				Objects.requireNonNull(LANG.getString("PREFIX", "&6[&5Custom&dAdvancements&6]&r")));
+		final Template template = this.template;
+		if (template == null) return "Failed to load string.";
+		return template.format((noprefix) ? null : PREFIX_RENDERED, args);
+	}
 
-		value = ((noprefix) ? "" : prefix + " ") + value;
+	/**
+	 * A message split into literal segments and argument slots, {@code segments[i]} is followed by the argument {@code slots[i]}
+	 */
+	private static final class Template {
+		private final String[] segments;
+		private final int[] slots;
+		private final int length;
 
-		if (args == null)
-			return value;
-		else {
-			if (args.length == 0)
-				return value;
+		private Template(final String[] segments, final int[] slots) {
+			this.segments = segments;
+			this.slots = slots;
+			int length = 0;
+			for (final String segment : segments) length += segment.length();
+			this.length = length;
+		}
 
-			for (int i = 0; i < args.length; i++) {
-				value = value.replace("{" + i + "}", args[i]);
+		private static Template compile(final String message) {
+			final List<String> segments = new ArrayList<>();
+			final List<Integer> slots = new ArrayList<>();
+			int literalStart = 0;
+			int open = message.indexOf('{');
+			while (open != -1) {
+				int close = open + 1;
+				while (close < message.length() && Character.isDigit(message.charAt(close))) close++;
+				if (close > open + 1 && close < message.length() && message.charAt(close) == '}' && close - open <= 10) {
+					segments.add(message.substring(literalStart, open));
+					slots.add(Integer.parseInt(message.substring(open + 1, close)));
+					literalStart = close + 1;
+					open = message.indexOf('{', literalStart);
+				} else {
+					open = message.indexOf('{', open + 1);
+				}
 			}
+			segments.add(message.substring(literalStart));
+
+			final int[] slotArray = new int[slots.size()];
+			for (int i = 0; i < slotArray.length; i++) slotArray[i] = slots.get(i);
+			return new Template(segments.toArray(new String[0]), slotArray);
 		}
 
-		return value;
+		/**
+		 * Formats this template, slots without a matching argument are kept as {@code {n}}
+		 *
+		 * @param prefix the rendered prefix, or null for no prefix
+		 * @param args   the arguments, may be null
+		 * @return the formatted message
+		 */
+		private String format(final String prefix, final String[] args) {
+			if (slots.length == 0 && prefix == null) return segments[0];
+			final StringBuilder builder = new StringBuilder(length + (prefix == null ? 0 : prefix.length()) + slots.length * 8);
+			if (prefix != null) builder.append(prefix);
+			builder.append(segments[0]);
+			for (int i = 0; i < slots.length; i++) {
+				final int slot = slots[i];
+				if (args != null && slot < args.length) {
+					builder.append(args[slot]);
+				} else {
+					builder.append('{').append(slot).append('}');
+				}
+				builder.append(segments[i + 1]);
+			}
+			return builder.toString();
+		}
 	}
 }
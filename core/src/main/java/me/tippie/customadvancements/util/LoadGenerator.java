@@ -0,0 +1,332 @@
+package me.tippie.customadvancements.util;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.advancement.types.AdvancementType;
+import me.tippie.customadvancements.advancement.types.BlockBreak;
+import me.tippie.customadvancements.advancement.types.BlocksTravelled;
+import me.tippie.customadvancements.advancement.types.Chat;
+import me.tippie.customadvancements.advancement.types.CraftItem;
+import me.tippie.customadvancements.player.CAPlayer;
+import me.tippie.customadvancements.player.datafile.AdvancementProgress;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.inventory.*;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.CraftingInventory;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.Recipe;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Simulates virtual players that break blocks, move, chat and craft, to find out how much load the plugin can handle.
+ * The events are passed to the event handlers of the registered advancement types directly, so they go through the real
+ * dispatch, progress bus and completion pipeline, but are never seen by other plugins. Every advancement is active for
+ * the virtual players, which is the worst case.
+ * <p>
+ * The generator does not schedule anything itself, call {@link LoadGenerator#tick()} once per tick on the main thread.
+ * Virtual players do not exist on the server and are loaded apart from the real players by the
+ * {@link me.tippie.customadvancements.player.CAPlayerManager}, so they get no rewards, announcements or advancement packets.
+ * Their progress files are saved off the main thread when the load test stops and deleted again afterwards.
+ */
+public class LoadGenerator {
+	private static final Material[] BLOCKS = {Material.STONE, Material.DIRT, Material.OAK_LOG, Material.COAL_ORE, Material.SAND, Material.GRASS_BLOCK};
+	private static final String[] MESSAGES = {"hello", "gg", "anyone want to trade diamonds?", "lol", "where is the nether portal", "brb"};
+	private static final ItemStack[] CRAFTS = {new ItemStack(Material.STICK, 4), new ItemStack(Material.OAK_PLANKS, 4), new ItemStack(Material.TORCH, 4), new ItemStack(Material.CRAFTING_TABLE, 1), new ItemStack(Material.FURNACE, 1)};
+	private static final String[] KINDS = {"block break", "move", "chat", "craft"};
+
+	private static LoadGenerator running;
+
+	private final Random random = new Random(1);
+	private final Player[] players;
+	private final InventoryView[] views;
+	private final double[] positions;
+	private final Block[] blocks = new Block[BLOCKS.length];
+	private final Recipe[] recipes = new Recipe[CRAFTS.length];
+
+	/**
+	 * Events per player per second of each kind, in the order of {@link LoadGenerator#KINDS}
+	 */
+	private final double[] rates;
+	private final double[] pending = new double[KINDS.length];
+	private final long[] events = new long[KINDS.length];
+
+	private BlockBreak blockBreak;
+	private BlocksTravelled blocksTravelled;
+	private Chat chat;
+	private CraftItem craftItem;
+
+	private final Profiler.Histogram tickInterval = new Profiler.Histogram();
+	private final Profiler.Histogram dispatch = new Profiler.Histogram();
+	private long ticks = 0;
+	private long lastTick = 0;
+	private long startedAt;
+	private long stoppedAt;
+	private long joinNanos;
+	private long saveNanos;
+	private int saved;
+	private long heapStart;
+	private long heapPeak;
+	private long heapEnd;
+	private int backlogPeak;
+	private int rewardsPeak;
+	private long progressUpdatesStart;
+	private long completionsStart;
+	private long drainNanosStart;
+	private boolean stopped = false;
+	private CompletableFuture<Void> saving = CompletableFuture.completedFuture(null);
+
+	/**
+	 * Creates a new {@link LoadGenerator}, the virtual players join on {@link LoadGenerator#start()}
+	 *
+	 * @param players    the amount of virtual players
+	 * @param blockBreak block break events per player per second
+	 * @param move       move events per player per second
+	 * @param chat       chat messages per player per second
+	 * @param craft      craft events per player per second
+	 */
+	public LoadGenerator(final int players, final double blockBreak, final double move, final double chat, final double craft) {
+		this.players = new Player[players];
+		this.views = new InventoryView[players];
+		this.positions = new double[players];
+		this.rates = new double[]{blockBreak, move, chat, craft};
+	}
+
+	/**
+	 * Gets the load test that is currently running
+	 *
+	 * @return the running {@link LoadGenerator} or null if none is running
+	 */
+	public static LoadGenerator getRunning() {
+		return running;
+	}
+
+	/**
+	 * Lets the virtual players join and activates all advancements for them, MAKE SURE THIS IS CALLED SYNC!!
+	 *
+	 * @throws IllegalStateException if another load test is running
+	 */
+	public void start() {
+		if (running != null) throw new IllegalStateException("A load test is already running");
+		running = this;
+
+		final AdvancementType<?>[] types = {
+				CustomAdvancements.getAdvancementManager().getAdvancementType("BlockBreak"),
+				CustomAdvancements.getAdvancementManager().getAdvancementType("blockstravelled"),
+				CustomAdvancements.getAdvancementManager().getAdvancementType("chat"),
+				CustomAdvancements.getAdvancementManager().getAdvancementType("craftitem")
+		};
+		if (types[0] instanceof BlockBreak) blockBreak = (BlockBreak) types[0];
+		if (types[1] instanceof BlocksTravelled) blocksTravelled = (BlocksTravelled) types[1];
+		if (types[2] instanceof Chat) chat = (Chat) types[2];
+		if (types[3] instanceof CraftItem) craftItem = (CraftItem) types[3];
+		for (int i = 0; i < BLOCKS.length; i++) {
+			final Material material = BLOCKS[i];
+			blocks[i] = Stubs.create(Block.class, (method, args) -> method.equals("getType") ? material : null);
+		}
+		for (int i = 0; i < CRAFTS.length; i++) {
+			final ItemStack result = CRAFTS[i];
+			recipes[i] = () -> result;
+		}
+
+		heapStart = heapUsed();
+		heapPeak = heapStart;
+		final long start = System.nanoTime();
+		for (int i = 0; i < players.length; i++) {
+			final UUID uuid = UUID.nameUUIDFromBytes(("CustomAdvancements:LoadTest:" + i).getBytes(StandardCharsets.UTF_8));
+			players[i] = Stubs.player(uuid, "LoadTest" + i);
+			views[i] = new VirtualView(players[i]);
+			final CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().loadVirtualPlayer(players[i]);
+			for (final AdvancementProgress progress : caPlayer.getAdvancementProgress().values()) {
+				if (!progress.isCompleted()) progress.setActive(true);
+			}
+			caPlayer.getAggregates().invalidate();
+		}
+		joinNanos = System.nanoTime() - start;
+
+		progressUpdatesStart = CustomAdvancements.getProfiler().getProgressUpdates();
+		completionsStart = CustomAdvancements.getProfiler().getCompletions();
+		drainNanosStart = CustomAdvancements.getProfiler().getDrain().getTotal();
+		startedAt = System.nanoTime();
+	}
+
+	/**
+	 * Generates the events of one tick, MAKE SURE THIS IS CALLED SYNC!!
+	 */
+	public void tick() {
+		if (stopped || running != this) return;
+		final long start = System.nanoTime();
+		if (lastTick != 0) tickInterval.record(start - lastTick);
+		lastTick = start;
+		ticks++;
+
+		for (int kind = 0; kind < KINDS.length; kind++) {
+			pending[kind] += rates[kind] * players.length / 20D;
+			final int count = (int) pending[kind];
+			pending[kind] -= count;
+			for (int i = 0; i < count; i++) {
+				if (fire(kind, random.nextInt(players.length))) events[kind]++;
+			}
+		}
+		dispatch.record(System.nanoTime() - start);
+
+		heapPeak = Math.max(heapPeak, heapUsed());
+		backlogPeak = Math.max(backlogPeak, CustomAdvancements.getProgressBus().getBacklog());
+		rewardsPeak = Math.max(rewardsPeak, CustomAdvancements.getCompletionPipeline().getQueuedRewards());
+	}
+
+	private boolean fire(final int kind, final int player) {
+		switch (kind) {
+			case 0:
+				if (blockBreak == null) return false;
+				blockBreak.onBlockBreak(new BlockBreakEvent(blocks[random.nextInt(blocks.length)], players[player]));
+				return true;
+			case 1:
+				if (blocksTravelled == null) return false;
+				final Location from = new Location(null, positions[player], 64, 0);
+				positions[player] += 0.25;
+				blocksTravelled.onBlockMove(new PlayerMoveEvent(players[player], from, new Location(null, positions[player], 64, 0)));
+				return true;
+			case 2:
+				if (chat == null) return false;
+				chat.onAsyncChat(new AsyncPlayerChatEvent(true, players[player], MESSAGES[random.nextInt(MESSAGES.length)], Collections.emptySet()));
+				return true;
+			default:
+				if (craftItem == null) return false;
+				craftItem.onBlockPlace(new CraftItemEvent(recipes[random.nextInt(recipes.length)], views[player], InventoryType.SlotType.RESULT, 0, ClickType.LEFT, InventoryAction.PICKUP_ALL));
+				return true;
+		}
+	}
+
+	/**
+	 * Stops the load test and unloads the virtual players. Their progress is saved off the main thread to measure
+	 * persistence and their files are deleted again afterwards. MAKE SURE THIS IS CALLED SYNC!!
+	 *
+	 * @return a future that is completed with the final report once the files are saved, see {@link LoadGenerator#report()}
+	 */
+	public CompletableFuture<Map<String, String>> stop() {
+		if (stopped) return saving.thenApply(v -> report());
+		stopped = true;
+		stoppedAt = System.nanoTime();
+		heapEnd = heapUsed();
+		if (running == this) running = null;
+
+		if (blocksTravelled != null) {
+			for (final Player player : players) {
+				if (player != null) blocksTravelled.onQuit(new PlayerQuitEvent(player, null));
+			}
+		}
+		// Every progress of the virtual players must be applied before they are unloaded, or it would load their files
+		// through the offline path while they are saved and deleted
+		CustomAdvancements.getAdvancementManager().getAdvancementTypes().forEach(AdvancementType::flush);
+		CustomAdvancements.getProgressBus().drain();
+
+		final List<CAPlayer> unloaded = new ArrayList<>(players.length);
+		for (final Player player : players) {
+			if (player == null) continue;
+			final CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().unloadVirtualPlayer(player.getUniqueId());
+			if (caPlayer != null) unloaded.add(caPlayer);
+		}
+		final File folder = new File(CustomAdvancements.getInstance().getDataFolder(), "data");
+		saving = CompletableFuture.runAsync(() -> {
+			final long start = System.nanoTime();
+			for (final CAPlayer caPlayer : unloaded) {
+				caPlayer.getAdvancementProgressFile().saveFile(caPlayer.getAdvancementProgress());
+				saved++;
+			}
+			saveNanos = System.nanoTime() - start;
+			for (final CAPlayer caPlayer : unloaded) {
+				final File file = new File(folder, caPlayer.getUuid() + ".yml");
+				if (file.exists() && !file.delete()) file.deleteOnExit();
+			}
+		});
+		return saving.thenApply(v -> report());
+	}
+
+	/**
+	 * Creates the report of this load test, the persistence entry is only filled in after {@link LoadGenerator#stop()}
+	 *
+	 * @return map with key the name of a measurement and value its formatted result, in display order
+	 */
+	public Map<String, String> report() {
+		final double seconds = Math.max(1, (stopped ? stoppedAt : System.nanoTime()) - startedAt) / 1e9D;
+		final long totalEvents = Arrays.stream(events).sum();
+		final Profiler profiler = CustomAdvancements.getProfiler();
+		final long progressUpdates = profiler == null ? 0 : profiler.getProgressUpdates() - progressUpdatesStart;
+		final long completions = profiler == null ? 0 : profiler.getCompletions() - completionsStart;
+		final long drainNanos = profiler == null ? 0 : profiler.getDrain().getTotal() - drainNanosStart;
+
+		final Map<String, String> report = new LinkedHashMap<>();
+		report.put("Virtual players", players.length + " (joined in " + millis(joinNanos) + "ms)");
+		report.put("Duration", String.format("%.1fs, %d ticks", seconds, ticks));
+		final StringBuilder perKind = new StringBuilder();
+		for (int kind = 0; kind < KINDS.length; kind++) {
+			if (kind != 0) perKind.append(", ");
+			perKind.append(events[kind]).append(' ').append(KINDS[kind]);
+		}
+		report.put("Events", perKind.toString());
+		report.put("Throughput", String.format("%.0f events/s, %.0f progress updates/s, %d completions", totalEvents / seconds, progressUpdates / seconds, completions));
+		report.put("Tick interval", String.format("%.2fms avg, %.2fms max", tickInterval.getCount() == 0 ? 0 : tickInterval.getTotal() / (double) tickInterval.getCount() / 1e6D, tickInterval.getMax() / 1e6D));
+		report.put("Dispatch per tick", String.format("%.3fms avg, %.3fms p99", ticks == 0 ? 0 : dispatch.getTotal() / (double) ticks / 1e6D, dispatch.getPercentile(99) / 1e6D));
+		report.put("Bus drain per tick", String.format("%.3fms avg", ticks == 0 ? 0 : drainNanos / (double) ticks / 1e6D));
+		report.put("Heap used", (heapStart >> 20) + "MB start, " + (heapPeak >> 20) + "MB peak, " + ((stopped ? heapEnd : heapUsed()) >> 20) + "MB now");
+		report.put("Progress backlog", backlogPeak + " peak, " + CustomAdvancements.getProgressBus().getBacklog() + " now");
+		report.put("Queued rewards", rewardsPeak + " peak, " + CustomAdvancements.getCompletionPipeline().getQueuedRewards() + " now");
+		report.put("Progress files saved", stopped && saving.isDone() ? saved + " in " + millis(saveNanos) + "ms" : "after stop");
+		return report;
+	}
+
+	private static long heapUsed() {
+		final Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static long millis(final long nanos) {
+		return nanos / 1_000_000L;
+	}
+
+	/**
+	 * The crafting table of a virtual player
+	 */
+	private static final class VirtualView extends InventoryView {
+		private final Player player;
+		private final CraftingInventory top = Stubs.create(CraftingInventory.class, (method, args) -> method.equals("getSize") ? 10 : null);
+		private final PlayerInventory bottom = Stubs.create(PlayerInventory.class, (method, args) -> method.equals("getSize") ? 36 : null);
+
+		private VirtualView(final Player player) {
+			this.player = player;
+		}
+
+		@Override public Inventory getTopInventory() {
+			return top;
+		}
+
+		@Override public Inventory getBottomInventory() {
+			return bottom;
+		}
+
+		@Override public HumanEntity getPlayer() {
+			return player;
+		}
+
+		@Override public InventoryType getType() {
+			return InventoryType.WORKBENCH;
+		}
+
+		@Override public String getTitle() {
+			return "Crafting";
+		}
+	}
+}
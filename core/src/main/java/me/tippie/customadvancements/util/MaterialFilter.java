@@ -0,0 +1,69 @@
+package me.tippie.customadvancements.util;
+
+import org.bukkit.Material;
+
+import java.util.BitSet;
+
+/**
+ * A precompiled advancement value of comma separated materials, optionally negated with a leading '!'.
+ * 'any', an empty value or no value matches every material.
+ */
+public class MaterialFilter {
+	private final BitSet materials;
+	private final boolean not;
+	private final boolean any;
+
+	private MaterialFilter(final BitSet materials, final boolean not, final boolean any) {
+		this.materials = materials;
+		this.not = not;
+		this.any = any;
+	}
+
+	/**
+	 * Compiles an advancement value into a {@link MaterialFilter}, unknown materials are ignored
+	 *
+	 * @param value the value of an advancement, for example 'STONE,DIRT' or '!STONE'
+	 * @return the compiled filter
+	 */
+	public static MaterialFilter compile(String value) {
+		final BitSet materials = new BitSet();
+		if (value == null || value.equalsIgnoreCase("any") || value.isEmpty())
+			return new MaterialFilter(materials, false, true);
+		boolean not = false;
+		if (value.startsWith("!")) {
+			value = value.substring(1);
+			not = true;
+		}
+		for (final String materialString : value.split(",")) {
+			final Material material = Material.getMaterial(materialString.trim().toUpperCase());
+			if (material != null) materials.set(material.ordinal());
+		}
+		return new MaterialFilter(materials, not, false);
+	}
+
+	/**
+	 * Checks if a material matches this filter
+	 *
+	 * @param material the material that should be checked
+	 * @return true if the material matches
+	 */
+	public boolean test(final Material material) {
+		return any || materials.get(material.ordinal()) != not;
+	}
+
+	/**
+	 * Sums the amounts of all matching materials in a histogram indexed by {@link Material#ordinal()}
+	 *
+	 * @param counts the amount per material ordinal
+	 * @param total  the sum of all amounts in the histogram
+	 * @return the amount of matching items
+	 */
+	public int count(final int[] counts, final int total) {
+		if (any) return total;
+		int result = 0;
+		for (int i = materials.nextSetBit(0); i >= 0 && i < counts.length; i = materials.nextSetBit(i + 1)) {
+			result += counts[i];
+		}
+		return not ? total - result : result;
+	}
+}
@@ -0,0 +1,372 @@
+package me.tippie.customadvancements.util;
+
+import me.tippie.customadvancements.CustomAdvancements;
+import me.tippie.customadvancements.bstats.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Records how much work the plugin does and how long it takes, per advancement type and for the shared progress paths.
+ * Counters are {@link LongAdder}s so recording from event handlers does not contend, durations are kept in histograms with
+ * one bucket per power of two nanoseconds. Recording can be turned off with {@code stats.enabled}.
+ */
+public class Profiler {
+	/**
+	 * Name of the dump file in the data folder, the previous dump is kept next to it
+	 */
+	private static final String DUMP_FILE = "stats.json";
+
+	private final boolean enabled;
+	private final long startedAt = System.currentTimeMillis();
+
+	/**
+	 * Map with key the label of an advancement type and value its statistics
+	 */
+	private final Map<String, TypeStats> types = new ConcurrentHashMap<>();
+
+	private final LongAdder progressUpdates = new LongAdder();
+	private final LongAdder completions = new LongAdder();
+	private final LongAdder guiOpens = new LongAdder();
+	private final LongAdder packetSends = new LongAdder();
+	private final LongAdder requirementCacheHits = new LongAdder();
+	private final LongAdder requirementCacheMisses = new LongAdder();
+	private final Histogram drain = new Histogram();
+	private final Histogram pipeline = new Histogram();
+
+	/**
+	 * Creates a new {@link Profiler}, reading {@code stats.enabled} from the config
+	 */
+	public Profiler() {
+		enabled = CustomAdvancements.getInstance().getConfig().getBoolean("stats.enabled", true);
+	}
+
+	/**
+	 * Gets the current time to pass to the record methods, 0 if recording is disabled
+	 *
+	 * @return the current value of {@link System#nanoTime()}
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records an event handled by an advancement type
+	 *
+	 * @param type    the label of the advancement type
+	 * @param matched the amount of active advancements the event was checked against
+	 * @param start   the value returned by {@link Profiler#start()} before handling the event
+	 */
+	public void recordEvent(final String type, final int matched, final long start) {
+		if (!enabled) return;
+		final TypeStats stats = stats(type);
+		stats.events.increment();
+		stats.matched.add(matched);
+		stats.dispatch.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Records progression queued by an advancement type
+	 *
+	 * @param type the label of the advancement type
+	 */
+	public void recordProgression(final String type) {
+		if (enabled) stats(type).progressions.increment();
+	}
+
+	/**
+	 * Records a drain of the progress bus
+	 *
+	 * @param updates the amount of applied updates
+	 * @param start   the value returned by {@link Profiler#start()} before draining
+	 */
+	public void recordDrain(final int updates, final long start) {
+		if (!enabled) return;
+		progressUpdates.add(updates);
+		drain.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Records a tick of the completion pipeline
+	 *
+	 * @param start the value returned by {@link Profiler#start()} before the tick
+	 */
+	public void recordPipeline(final long start) {
+		if (enabled) pipeline.record(System.nanoTime() - start);
+	}
+
+	public void recordCompletion() {
+		if (enabled) completions.increment();
+	}
+
+	public void recordGuiOpen() {
+		if (enabled) guiOpens.increment();
+	}
+
+	public void recordPacketSend() {
+		if (enabled) packetSends.increment();
+	}
+
+	/**
+	 * Records a requirement check of a player
+	 *
+	 * @param hit true if the result was served from their requirement cache
+	 */
+	public void recordRequirementCheck(final boolean hit) {
+		if (enabled) (hit ? requirementCacheHits : requirementCacheMisses).increment();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Gets the statistics of all advancement types that recorded anything, sorted by label
+	 *
+	 * @return map with key the label of a type and value its statistics
+	 */
+	public Map<String, TypeStats> getTypes() {
+		return new TreeMap<>(types);
+	}
+
+	public long getProgressUpdates() {
+		return progressUpdates.sum();
+	}
+
+	public long getCompletions() {
+		return completions.sum();
+	}
+
+	public long getGuiOpens() {
+		return guiOpens.sum();
+	}
+
+	public long getPacketSends() {
+		return packetSends.sum();
+	}
+
+	public long getRequirementCacheHits() {
+		return requirementCacheHits.sum();
+	}
+
+	public long getRequirementCacheMisses() {
+		return requirementCacheMisses.sum();
+	}
+
+	public Histogram getDrain() {
+		return drain;
+	}
+
+	public Histogram getPipeline() {
+		return pipeline;
+	}
+
+	private TypeStats stats(final String type) {
+		final TypeStats stats = types.get(type);
+		return stats != null ? stats : types.computeIfAbsent(type, k -> new TypeStats());
+	}
+
+	/**
+	 * Adds the custom charts of this profiler to the bStats metrics
+	 *
+	 * @param metrics the metrics of the plugin
+	 */
+	public void registerCharts(final Metrics metrics) {
+		if (!enabled) return;
+		metrics.addCustomChart(new Metrics.AdvancedPie("advancement_type_events", () -> {
+			final Map<String, Integer> result = new TreeMap<>();
+			for (final Map.Entry<String, TypeStats> entry : types.entrySet()) {
+				result.put(entry.getKey(), entry.getValue().eventsSinceChart());
+			}
+			return result;
+		}));
+		metrics.addCustomChart(new Metrics.SingleLineChart("advancement_completions", new Delta(completions)::next));
+		metrics.addCustomChart(new Metrics.SingleLineChart("progress_updates", new Delta(progressUpdates)::next));
+	}
+
+	/**
+	 * Writes the current statistics to the dump file in the data folder, the previous dump is renamed. Safe to call async,
+	 * dumps never overlap so the periodic dump and the one on disable cannot both write the temporary file.
+	 */
+	public synchronized void dump() {
+		if (!enabled) return;
+		final File folder = CustomAdvancements.getInstance().getDataFolder();
+		final File file = new File(folder, DUMP_FILE);
+		final File temp = new File(folder, DUMP_FILE + ".tmp");
+		try {
+			Files.write(temp.toPath(), toJson().getBytes(StandardCharsets.UTF_8));
+			if (file.exists()) Files.move(file.toPath(), new File(folder, "stats.previous.json").toPath(), StandardCopyOption.REPLACE_EXISTING);
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (final IOException ex) {
+			CustomAdvancements.getInstance().getLogger().log(Level.WARNING, "Could not write " + DUMP_FILE, ex);
+		}
+	}
+
+	private String toJson() {
+		final StringBuilder json = new StringBuilder(1024);
+		json.append("{\n  \"started\": ").append(startedAt)
+				.append(",\n  \"time\": ").append(System.currentTimeMillis())
+				.append(",\n  \"types\": {");
+		boolean first = true;
+		for (final Map.Entry<String, TypeStats> entry : getTypes().entrySet()) {
+			final TypeStats stats = entry.getValue();
+			json.append(first ? "\n    \"" : ",\n    \"").append(entry.getKey().replace("\"", "")).append("\": {")
+					.append("\"events\": ").append(stats.getEvents())
+					.append(", \"matched\": ").append(stats.getMatched())
+					.append(", \"progressions\": ").append(stats.getProgressions())
+					.append(", \"dispatch\": ");
+			stats.getDispatch().appendJson(json);
+			json.append('}');
+			first = false;
+		}
+		json.append("\n  },\n  \"progress_updates\": ").append(getProgressUpdates())
+				.append(",\n  \"completions\": ").append(getCompletions())
+				.append(",\n  \"gui_opens\": ").append(getGuiOpens())
+				.append(",\n  \"packet_sends\": ").append(getPacketSends())
+				.append(",\n  \"requirement_cache_hits\": ").append(getRequirementCacheHits())
+				.append(",\n  \"requirement_cache_misses\": ").append(getRequirementCacheMisses())
+				.append(",\n  \"progress_backlog\": ").append(CustomAdvancements.getProgressBus() == null ? 0 : CustomAdvancements.getProgressBus().getBacklog())
+				.append(",\n  \"queued_rewards\": ").append(CustomAdvancements.getCompletionPipeline() == null ? 0 : CustomAdvancements.getCompletionPipeline().getQueuedRewards())
+				.append(",\n  \"bus_drain\": ");
+		drain.appendJson(json);
+		json.append(",\n  \"completion_pipeline\": ");
+		pipeline.appendJson(json);
+		return json.append("\n}\n").toString();
+	}
+
+	/**
+	 * The statistics of a single advancement type
+	 */
+	public static final class TypeStats {
+		private final LongAdder events = new LongAdder();
+		private final LongAdder matched = new LongAdder();
+		private final LongAdder progressions = new LongAdder();
+		private final Histogram dispatch = new Histogram();
+		private final AtomicLong charted = new AtomicLong();
+
+		public long getEvents() {
+			return events.sum();
+		}
+
+		public long getMatched() {
+			return matched.sum();
+		}
+
+		public long getProgressions() {
+			return progressions.sum();
+		}
+
+		public Histogram getDispatch() {
+			return dispatch;
+		}
+
+		private int eventsSinceChart() {
+			final long total = events.sum();
+			return (int) Math.min(Integer.MAX_VALUE, total - charted.getAndSet(total));
+		}
+	}
+
+	/**
+	 * Durations in nanoseconds, bucket {@code i} counts durations of at least {@code 2^(i-1)} and less than {@code 2^i} nanoseconds
+	 */
+	public static final class Histogram {
+		private final LongAdder[] buckets = new LongAdder[64];
+		private final LongAdder count = new LongAdder();
+		private final LongAdder total = new LongAdder();
+		private final AtomicLong max = new AtomicLong();
+
+		Histogram() {
+			for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+		}
+
+		void record(final long nanos) {
+			final long value = Math.max(0, nanos);
+			buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+			count.increment();
+			total.add(value);
+			long current = max.get();
+			while (value > current && !max.compareAndSet(current, value)) current = max.get();
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * Gets the total recorded time
+		 *
+		 * @return total recorded time in nanoseconds
+		 */
+		public long getTotal() {
+			return total.sum();
+		}
+
+		public long getMax() {
+			return max.get();
+		}
+
+		/**
+		 * Gets the upper bound of the bucket that contains the given percentile
+		 *
+		 * @param percentile the percentile between 0 and 100
+		 * @return the upper bound in nanoseconds, 0 if nothing was recorded
+		 */
+		public long getPercentile(final double percentile) {
+			final long[] counts = new long[buckets.length];
+			long recorded = 0;
+			for (int i = 0; i < counts.length; i++) recorded += counts[i] = buckets[i].sum();
+			if (recorded == 0) return 0;
+			final long rank = (long) Math.ceil(recorded * percentile / 100D);
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) return Math.min(i >= 63 ? Long.MAX_VALUE : (1L << i), getMax());
+			}
+			return getMax();
+		}
+
+		private void appendJson(final StringBuilder json) {
+			int last = buckets.length - 1;
+			while (last > 0 && buckets[last].sum() == 0) last--;
+			json.append("{\"count\": ").append(getCount())
+					.append(", \"total_ns\": ").append(getTotal())
+					.append(", \"p50_ns\": ").append(getPercentile(50))
+					.append(", \"p99_ns\": ").append(getPercentile(99))
+					.append(", \"max_ns\": ").append(getMax())
+					.append(", \"buckets\": [");
+			for (int i = 0; i <= last; i++) {
+				if (i != 0) json.append(", ");
+				json.append(buckets[i].sum());
+			}
+			json.append("]}");
+		}
+	}
+
+	/**
+	 * Reports the growth of a counter since the previous call, bStats line charts expect the value of one interval
+	 */
+	private static final class Delta {
+		private final LongAdder counter;
+		private long previous = 0;
+
+		private Delta(final LongAdder counter) {
+			this.counter = counter;
+		}
+
+		private synchronized int next() {
+			final long total = counter.sum();
+			final int result = (int) Math.min(Integer.MAX_VALUE, total - previous);
+			previous = total;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package me.tippie.customadvancements.util;
+
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Creates stub implementations of Bukkit interfaces, used for virtual players of the {@link LoadGenerator} and by the
+ * benchmarks to mock a server. A stub answers calls by method name, every call that is not answered returns the default
+ * value of its return type (null, false or 0). This is shipped with the plugin because {@code /ca loadtest} creates its
+ * virtual players, blocks and inventories at runtime, the benchmarks module reuses it from the core jar.
+ */
+public final class Stubs {
+
+	private Stubs() {
+	}
+
+	/**
+	 * Answers a call to a stub
+	 */
+	@FunctionalInterface
+	public interface Answer {
+		/**
+		 * @param method the name of the called method
+		 * @param args   the arguments of the call, null if there are none
+		 * @return the result of the call, or null for the default value of the return type
+		 */
+		Object answer(String method, Object[] args);
+	}
+
+	/**
+	 * Creates a stub of an interface
+	 *
+	 * @param type   the interface
+	 * @param answer answers the calls to the stub, {@link Object#equals(Object)}, {@link Object#hashCode()} and {@link Object#toString()} are answered by identity
+	 * @return the stub
+	 */
+	public static <T> T create(final Class<T> type, final Answer answer) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+			final int parameters = method.getParameterTypes().length;
+			if (method.getName().equals("hashCode") && parameters == 0) return System.identityHashCode(proxy);
+			if (method.getName().equals("equals") && parameters == 1) return proxy == args[0];
+			if (method.getName().equals("toString") && parameters == 0) return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+			final Object result = answer.answer(method.getName(), args);
+			return result != null ? result : defaultValue(method.getReturnType());
+		}));
+	}
+
+	/**
+	 * Creates a stub of a player that is not connected to the server
+	 *
+	 * @param uuid the uuid of the player
+	 * @param name the name of the player
+	 * @return the stub, it has no permissions and is not online
+	 */
+	public static Player player(final UUID uuid, final String name) {
+		return create(Player.class, (method, args) -> {
+			switch (method) {
+				case "getUniqueId":
+					return uuid;
+				case "getName":
+				case "getDisplayName":
+				case "getPlayerListName":
+					return name;
+				default:
+					return null;
+			}
+		});
+	}
+
+	private static Object defaultValue(final Class<?> type) {
+		if (!type.isPrimitive() || type == void.class) return null;
+		if (type == boolean.class) return false;
+		if (type == char.class) return '\0';
+		if (type == long.class) return 0L;
+		if (type == float.class) return 0F;
+		if (type == double.class) return 0D;
+		if (type == int.class) return 0;
+		if (type == short.class) return (short) 0;
+		return (byte) 0;
+	}
+}
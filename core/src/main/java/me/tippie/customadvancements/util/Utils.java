@@ -15,4 +15,13 @@ public class Utils {
     public static boolean validateNamespacedKey(String str) {
         return NAMESPACED_KEY_PATTERN.matcher(str).matches();
     }
+
+    /**
+     * Packs a block position into a single long, 26 bits for x and z and 12 bits for y
+     *
+     * @return the packed block position
+     */
+    public static long packBlockPosition(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
 }
@@ -19,12 +19,14 @@ import org.bukkit.entity.Player;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 public class v1_18_R1 implements InternalsProvider<Advancement, ResourceLocation, AdvancementProgress> {
-	private static final HashSet<AdvancementTree> loadedTrees = new HashSet<>();
-	private static final HashMap<ResourceLocation, Advancement> advancements = new HashMap<>();
-	private static final HashMap<UUID, HashMap<ResourceLocation, AdvancementProgress>> playerProgress = new HashMap<>();
+	/**
+	 * The currently loaded advancements, replaced as a whole once a load is done so readers never see a half built generation
+	 */
+	private static volatile Loaded loaded = new Loaded(Collections.emptySet(), Collections.emptyMap());
 
 	@Override
     public List<Advancement> getTreeFriendlyListList(Collection<Advancement> advancements) {
@@ -76,9 +78,8 @@ public class v1_18_R1 implements InternalsProvider<Advancement, ResourceLocation
 	@Override
 	public CompletableFuture<Void> loadAdvancements(List<AdvancementTree> trees) {
 		return CompletableFuture.runAsync(() -> {
-			loadedTrees.clear();
-			advancements.clear();
-			playerProgress.clear();
+			final Set<AdvancementTree> loadedTrees = new HashSet<>();
+			final Map<ResourceLocation, Advancement> advancements = new HashMap<>();
 
 			for (AdvancementTree tree : trees) {
 				ResourceLocation rootLocation = ResourceLocation.tryParse("customadvancements:" + tree.getLabel() + "/root");
@@ -177,6 +178,7 @@ public class v1_18_R1 implements InternalsProvider<Advancement, ResourceLocation
 				TreeNodePosition.run(root);
 			}
 
+			loaded = new Loaded(loadedTrees, advancements);
 		});
 	}
 
@@ -184,16 +186,17 @@ public class v1_18_R1 implements InternalsProvider<Advancement, ResourceLocation
 	public CompletableFuture<Void> sendAdvancements(Player player, boolean clear) {
 		return CompletableFuture.runAsync(() -> {
 
-			playerProgress.computeIfAbsent(player.getUniqueId(), uuid -> createProgress());
-			HashMap<ResourceLocation, AdvancementProgress> progress = playerProgress.get(player.getUniqueId());
+			final Loaded loaded = v1_18_R1.loaded;
+			loaded.playerProgress.computeIfAbsent(player.getUniqueId(), uuid -> createProgress(loaded.loadedTrees));
+			HashMap<ResourceLocation, AdvancementProgress> progress = loaded.playerProgress.get(player.getUniqueId());
 			CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId());
 
-			Collection<Advancement> sending = new HashSet<>(advancements.values());
+			Collection<Advancement> sending = new HashSet<>(loaded.advancements.values());
 
-			for (AdvancementTree tree : loadedTrees) {
+			for (AdvancementTree tree : loaded.loadedTrees) {
 				for (CAdvancement advancement : tree.getAdvancements()) {
 					ResourceLocation location = ResourceLocation.tryParse("customadvancements:" + tree.getLabel() + "/" + advancement.getLabel());
-					Advancement adv = advancements.get(location);
+					Advancement adv = loaded.advancements.get(location);
 					if (CustomAdvancements.getInstance().isPapiSupport() && adv.getDisplay() != null && adv.getDisplay().getDescription().getString().contains("%")) {
 						DisplayInfo displayInfo = adv.getDisplay();
 						sending.remove(adv);
@@ -251,8 +254,9 @@ public class v1_18_R1 implements InternalsProvider<Advancement, ResourceLocation
 	public CompletableFuture<Void> updateAdvancement(Player player, CAdvancement... advancements) {
 		return CompletableFuture.runAsync(() -> {
 
-			playerProgress.computeIfAbsent(player.getUniqueId(), uuid -> createProgress());
-			HashMap<ResourceLocation, AdvancementProgress> progress = playerProgress.get(player.getUniqueId());
+			final Loaded loaded = v1_18_R1.loaded;
+			loaded.playerProgress.computeIfAbsent(player.getUniqueId(), uuid -> createProgress(loaded.loadedTrees));
+			HashMap<ResourceLocation, AdvancementProgress> progress = loaded.playerProgress.get(player.getUniqueId());
 			CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId());
 			Map<ResourceLocation, AdvancementProgress> updating = new HashMap<>();
 			Map<ResourceLocation, Advancement> sending = new HashMap<>();
@@ -288,7 +292,7 @@ public class v1_18_R1 implements InternalsProvider<Advancement, ResourceLocation
 
 					if (true) {
 						updating.put(location, advancementProgress);
-						Advancement adv = v1_18_R1.advancements.get(location);
+						Advancement adv = loaded.advancements.get(location);
 						if (CustomAdvancements.getInstance().isPapiSupport() && adv.getDisplay() != null && adv.getDisplay().getDescription().getString().contains("%")) {
 							DisplayInfo displayInfo = adv.getDisplay();
 							Advancement updatedAdv = adv.deconstruct().display(
@@ -369,7 +373,7 @@ public class v1_18_R1 implements InternalsProvider<Advancement, ResourceLocation
 		};
 	}
 
-	private HashMap<ResourceLocation, AdvancementProgress> createProgress() {
+	private HashMap<ResourceLocation, AdvancementProgress> createProgress(final Set<AdvancementTree> loadedTrees) {
 		HashMap<ResourceLocation, AdvancementProgress> result = new HashMap<>();
 		for (AdvancementTree tree : loadedTrees) {
 			ResourceLocation rootLocation = ResourceLocation.tryParse("customadvancements:" + tree.getLabel() + "/root");
@@ -422,4 +426,18 @@ public class v1_18_R1 implements InternalsProvider<Advancement, ResourceLocation
 			throw new RuntimeException("Failed to set parent of advancement.", e);
 		}
 	}
+
+	/**
+	 * One loaded generation of advancements together with the progress sent to players for it
+	 */
+	private static final class Loaded {
+		private final Set<AdvancementTree> loadedTrees;
+		private final Map<ResourceLocation, Advancement> advancements;
+		private final Map<UUID, HashMap<ResourceLocation, AdvancementProgress>> playerProgress = new ConcurrentHashMap<>();
+
+		private Loaded(Set<AdvancementTree> loadedTrees, Map<ResourceLocation, Advancement> advancements) {
+			this.loadedTrees = Collections.unmodifiableSet(loadedTrees);
+			this.advancements = Collections.unmodifiableMap(advancements);
+		}
+	}
 }
@@ -24,12 +24,14 @@ import org.bukkit.entity.Player;
 import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 public class v1_20_R3 implements InternalsProvider<AdvancementNode, ResourceLocation, AdvancementProgress> {
-    private static final HashSet<AdvancementTree> loadedTrees = new HashSet<>();
-    private static final HashMap<ResourceLocation, AdvancementNode> advancements = new HashMap<>();
-    private static final HashMap<UUID, HashMap<ResourceLocation, AdvancementProgress>> playerProgress = new HashMap<>();
+    /**
+     * The currently loaded advancements, replaced as a whole once a load is done so readers never see a half built generation
+     */
+    private static volatile Loaded loaded = new Loaded(Collections.emptySet(), Collections.emptyMap());
 
     @Override
     public List<AdvancementNode> getTreeFriendlyListList(Collection<AdvancementNode> advancements) {
@@ -81,9 +83,8 @@ public class v1_20_R3 implements InternalsProvider<AdvancementNode, ResourceLoca
     @Override
     public CompletableFuture<Void> loadAdvancements(List<AdvancementTree> trees) {
         return CompletableFuture.runAsync(() -> {
-            loadedTrees.clear();
-            advancements.clear();
-            playerProgress.clear();
+            final Set<AdvancementTree> loadedTrees = new HashSet<>();
+            final Map<ResourceLocation, AdvancementNode> advancements = new HashMap<>();
 
             for (AdvancementTree tree : trees) {
                 ResourceLocation rootLocation = ResourceLocation.tryParse("customadvancements:" + tree.getLabel() + "/root");
@@ -184,22 +185,24 @@ public class v1_20_R3 implements InternalsProvider<AdvancementNode, ResourceLoca
                 TreeNodePosition.run(root);
             }
 
+            loaded = new Loaded(loadedTrees, advancements);
         });
     }
 
     @Override
     public CompletableFuture<Void> sendAdvancements(Player player, boolean clear) {
         return CompletableFuture.runAsync(() -> {
-            playerProgress.computeIfAbsent(player.getUniqueId(), uuid -> createProgress());
-            HashMap<ResourceLocation, AdvancementProgress> progress = playerProgress.get(player.getUniqueId());
+            final Loaded loaded = v1_20_R3.loaded;
+            loaded.playerProgress.computeIfAbsent(player.getUniqueId(), uuid -> createProgress(loaded.loadedTrees));
+            HashMap<ResourceLocation, AdvancementProgress> progress = loaded.playerProgress.get(player.getUniqueId());
             CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId());
 
-            Collection<AdvancementNode> sending = new HashSet<>(advancements.values());
+            Collection<AdvancementNode> sending = new HashSet<>(loaded.advancements.values());
 
-            for (AdvancementTree tree : loadedTrees) {
+            for (AdvancementTree tree : loaded.loadedTrees) {
                 for (CAdvancement advancement : tree.getAdvancements()) {
                     ResourceLocation location = ResourceLocation.tryParse("customadvancements:" + tree.getLabel() + "/" + advancement.getLabel());
-                    AdvancementNode adv = advancements.get(location);
+                    AdvancementNode adv = loaded.advancements.get(location);
                     DisplayInfo displayInfo = adv.advancement().display().orElseThrow();
 
                     sending.remove(adv);
@@ -256,8 +259,9 @@ public class v1_20_R3 implements InternalsProvider<AdvancementNode, ResourceLoca
     public CompletableFuture<Void> updateAdvancement(Player player, CAdvancement... advancements) {
         return CompletableFuture.runAsync(() -> {
 
-            playerProgress.computeIfAbsent(player.getUniqueId(), uuid -> createProgress());
-            HashMap<ResourceLocation, AdvancementProgress> progress = playerProgress.get(player.getUniqueId());
+            final Loaded loaded = v1_20_R3.loaded;
+            loaded.playerProgress.computeIfAbsent(player.getUniqueId(), uuid -> createProgress(loaded.loadedTrees));
+            HashMap<ResourceLocation, AdvancementProgress> progress = loaded.playerProgress.get(player.getUniqueId());
             CAPlayer caPlayer = CustomAdvancements.getCaPlayerManager().getPlayer(player.getUniqueId());
             Map<ResourceLocation, AdvancementProgress> updating = new HashMap<>();
             Map<ResourceLocation, AdvancementNode> sending = new HashMap<>();
@@ -293,7 +297,7 @@ public class v1_20_R3 implements InternalsProvider<AdvancementNode, ResourceLoca
 
                     if (true) {
                         updating.put(location, advancementProgress);
-                        AdvancementNode adv = v1_20_R3.advancements.get(location);
+                        AdvancementNode adv = loaded.advancements.get(location);
                         DisplayInfo displayInfo = adv.advancement().display().orElseThrow();
                         AdvancementHolder updatedAdvHolder = deconstructAdvancement(adv.advancement()).display(
                                 displayInfo.getIcon(),
@@ -393,7 +397,7 @@ public class v1_20_R3 implements InternalsProvider<AdvancementNode, ResourceLoca
         };
     }
 
-    private HashMap<ResourceLocation, AdvancementProgress> createProgress() {
+    private HashMap<ResourceLocation, AdvancementProgress> createProgress(final Set<AdvancementTree> loadedTrees) {
         HashMap<ResourceLocation, AdvancementProgress> result = new HashMap<>();
         for (AdvancementTree tree : loadedTrees) {
             ResourceLocation rootLocation = ResourceLocation.tryParse("customadvancements:" + tree.getLabel() + "/root");
@@ -457,4 +461,18 @@ public class v1_20_R3 implements InternalsProvider<AdvancementNode, ResourceLoca
         builder.requirements(advancement.requirements());
         return builder;
     }
+
+    /**
+     * One loaded generation of advancements together with the progress sent to players for it
+     */
+    private static final class Loaded {
+        private final Set<AdvancementTree> loadedTrees;
+        private final Map<ResourceLocation, AdvancementNode> advancements;
+        private final Map<UUID, HashMap<ResourceLocation, AdvancementProgress>> playerProgress = new ConcurrentHashMap<>();
+
+        private Loaded(Set<AdvancementTree> loadedTrees, Map<ResourceLocation, AdvancementNode> advancements) {
+            this.loadedTrees = Collections.unmodifiableSet(loadedTrees);
+            this.advancements = Collections.unmodifiableMap(advancements);
+        }
+    }
 }